@@ -0,0 +1,7 @@
+-- One-off setup, run by a superuser/DBA before the application first starts (schema.sql depends on it).
+-- The postgres service in docker-compose.yml runs this on a fresh volume; for an existing database run it
+-- once by hand: psql -U <superuser> -d grading_db -f 01-extensions.sql
+-- The application role itself needs no privilege beyond its own schema.
+
+CREATE EXTENSION IF NOT EXISTS unaccent;
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
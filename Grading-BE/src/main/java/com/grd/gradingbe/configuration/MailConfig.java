@@ -0,0 +1,26 @@
+package com.grd.gradingbe.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class MailConfig {
+
+    /**
+     * Fixed pool that sends outbox batches; each worker holds at most one SMTP connection at a time.
+     * The dispatcher never hands out more batches than there are workers, so the queue stays empty.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor mailWorkerExecutor(@Value("${env.mail.outbox.workers:4}") int workers) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(workers);
+        executor.setThreadNamePrefix("mail-worker-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
@@ -0,0 +1,43 @@
+package com.grd.gradingbe.configuration;
+
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+@Configuration
+public class SchedulingConfig {
+
+    /**
+     * Shared scheduler for ordinary {@code @Scheduled} jobs (picked by name).
+     * Declared explicitly because the dedicated scheduler below would otherwise replace Boot's default.
+     */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+
+    /**
+     * Runs the refresh token cleanup on its own thread so a long sweep never delays other jobs.
+     */
+    @Bean
+    public ThreadPoolTaskScheduler tokenCleanupTaskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("token-cleanup-");
+        scheduler.setWaitForTasksToCompleteOnShutdown(false);
+        return scheduler;
+    }
+
+    /**
+     * The outbox dispatcher blocks while its batches are on the wire, so it gets its own thread too.
+     */
+    @Bean
+    public ThreadPoolTaskScheduler mailDispatchTaskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("mail-dispatch-");
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        return scheduler;
+    }
+}
@@ -1,9 +1,11 @@
 package com.grd.gradingbe.configuration;
 
+import com.grd.gradingbe.utilities.BoundedPasswordEncoder;
 import com.grd.gradingbe.utilities.CustomAccessDeniedHandler;
 import com.grd.gradingbe.utilities.JwtFilter;
 import com.grd.gradingbe.utilities.OAuth2LoginSuccessHandler;
 import com.grd.gradingbe.service.impl.CustomUserDetailsService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -23,6 +25,8 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.time.Duration;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig
@@ -41,10 +45,30 @@ public class SecurityConfig
     @Value("${env.app.front-end.base-url}")
     private String frontendURL;
 
+    @Value("${env.security.password-hashing.strength:10}")
+    private int passwordHashStrength;
+
+    @Value("${env.security.password-hashing.threads:0}")
+    private int passwordHashThreads;
+
+    @Value("${env.security.password-hashing.queue-capacity:64}")
+    private int passwordHashQueueCapacity;
+
+    @Value("${env.security.password-hashing.timeout:5s}")
+    private Duration passwordHashTimeout;
+
     @Bean
-    public PasswordEncoder passwordEncoder()
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry)
     {
-        return new BCryptPasswordEncoder();
+        // 0 threads means one per core: BCrypt is pure CPU work, more threads only add contention
+        int threads = passwordHashThreads > 0 ? passwordHashThreads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(
+                new BCryptPasswordEncoder(passwordHashStrength),
+                threads,
+                passwordHashQueueCapacity,
+                passwordHashTimeout,
+                meterRegistry
+        );
     }
 
     @Bean
@@ -55,10 +79,12 @@ public class SecurityConfig
 
     @Bean
     @SuppressWarnings("deprecation")
-    public DaoAuthenticationProvider authenticationProvider() {
+    public DaoAuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
+        // Re-hashes with the current strength on successful login when the stored hash is weaker
+        authProvider.setUserDetailsPasswordService(userDetailsService);
         return authProvider;
     }
 
@@ -87,12 +113,12 @@ public class SecurityConfig
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, DaoAuthenticationProvider authenticationProvider) throws Exception
     {
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-                .authenticationProvider(authenticationProvider())
+                .authenticationProvider(authenticationProvider)
                 .authorizeHttpRequests(authorize -> authorize
                         .requestMatchers("/api/auth/**",
                                         "/oauth2/**",
@@ -1,15 +1,100 @@
 package com.grd.gradingbe.controller;
 
+import com.grd.gradingbe.dto.enums.DataFormat;
+import com.grd.gradingbe.dto.response.ApiResponse;
+import com.grd.gradingbe.dto.response.ImportResponse;
+import com.grd.gradingbe.service.CatalogExportService;
+import com.grd.gradingbe.service.CatalogImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+
 @RestController
 @RequestMapping(path = "api/admin")
+@RequiredArgsConstructor
 public class AdminController
 {
+    private final CatalogImportService catalogImportService;
+    private final CatalogExportService catalogExportService;
+
     @GetMapping("/system32")
     public void testRole ()
     {
     }
+
+    @Operation(
+            summary = "Bulk import universities",
+            description = "Streams a CSV (header row with UniversityRequest field names) or NDJSON body and upserts each row by code. Invalid rows are skipped and reported."
+    )
+    @PostMapping(path = "/import/universities", consumes = {"text/csv", "application/x-ndjson"}, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ApiResponse<ImportResponse>> importUniversities(HttpServletRequest request) throws IOException
+    {
+        // Read the raw body stream: a @RequestBody or multipart parameter would buffer the whole file first
+        ImportResponse report = catalogImportService.importUniversities(
+                request.getInputStream(), DataFormat.fromContentType(request.getContentType())
+        );
+
+        return ResponseEntity.status(HttpStatus.OK).body(ApiResponse.success("Universities imported", report));
+    }
+
+    @Operation(
+            summary = "Bulk import majors",
+            description = "Streams a CSV (name, code, description, durationYears, universityCode or universityId) or NDJSON body and upserts each row by code; a majors export can be imported as is. Invalid rows are skipped and reported."
+    )
+    @PostMapping(path = "/import/majors", consumes = {"text/csv", "application/x-ndjson"}, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ApiResponse<ImportResponse>> importMajors(HttpServletRequest request) throws IOException
+    {
+        ImportResponse report = catalogImportService.importMajors(
+                request.getInputStream(), DataFormat.fromContentType(request.getContentType())
+        );
+
+        return ResponseEntity.status(HttpStatus.OK).body(ApiResponse.success("Majors imported", report));
+    }
+
+    @Operation(
+            summary = "Export all universities",
+            description = "Streams every university as NDJSON or CSV, read through a database cursor and flushed as it goes"
+    )
+    @GetMapping("/export/universities")
+    public void exportUniversities(@RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response) throws IOException
+    {
+        DataFormat dataFormat = DataFormat.fromValue(format);
+        prepareExport(response, dataFormat, "universities");
+        catalogExportService.exportUniversities(response.getOutputStream(), dataFormat);
+    }
+
+    @Operation(
+            summary = "Export all majors",
+            description = "Streams every major as NDJSON or CSV, read through a database cursor and flushed as it goes"
+    )
+    @GetMapping("/export/majors")
+    public void exportMajors(@RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response) throws IOException
+    {
+        DataFormat dataFormat = DataFormat.fromValue(format);
+        prepareExport(response, dataFormat, "majors");
+        catalogExportService.exportMajors(response.getOutputStream(), dataFormat);
+    }
+
+    // Written synchronously on the request thread: no async request timeout applies to long exports
+    private void prepareExport(HttpServletResponse response, DataFormat format, String name)
+    {
+        response.setContentType(format.getMediaType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(name + (format == DataFormat.CSV ? ".csv" : ".ndjson"))
+                .build()
+                .toString());
+    }
 }
@@ -6,8 +6,10 @@ import com.grd.gradingbe.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -25,8 +27,10 @@ public class AuthController {
     @Operation(summary = "User login", description = "Authenticate user and return access and refresh tokens")
     @ApiResponse(responseCode = "200", description = "Login successful")
     @ApiResponse(responseCode = "401", description = "Invalid credentials")
-    public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest request) {
-        return ResponseEntity.ok(authService.login(request));
+    @ApiResponse(responseCode = "429", description = "Too many failed attempts")
+    public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest request, HttpServletRequest httpRequest) {
+        // The client address as resolved by server.forward-headers-strategy, not the proxy's
+        return ResponseEntity.ok(authService.login(request, httpRequest.getRemoteAddr()));
     }
 
     @PostMapping("/register")
@@ -51,10 +55,14 @@ public class AuthController {
     }
 
     @PostMapping("/logout")
-    @Operation(summary = "User logout", description = "Logout user and invalidate refresh token")
+    @Operation(summary = "User logout", description = "Logout user, invalidate refresh token and revoke the bearer access token if sent")
     @ApiResponse(responseCode = "200", description = "Logout successful")
-    public ResponseEntity<String> logout(@Valid @RequestBody RefreshTokenRequest request) {
-        authService.logout(request.getRefreshToken());
+    public ResponseEntity<String> logout(@Valid @RequestBody RefreshTokenRequest request,
+                                         @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ")
+                ? authorization.substring(7)
+                : null;
+        authService.logout(request.getRefreshToken(), accessToken);
         return ResponseEntity.ok("Logged out successfully");
     }
 
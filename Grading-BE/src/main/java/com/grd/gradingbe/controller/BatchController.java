@@ -0,0 +1,63 @@
+package com.grd.gradingbe.controller;
+
+import com.grd.gradingbe.dto.request.BatchRequest;
+import com.grd.gradingbe.dto.response.ApiResponse;
+import com.grd.gradingbe.dto.response.BatchResponse;
+import com.grd.gradingbe.dto.token.VerifiedToken;
+import com.grd.gradingbe.service.BatchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping(value = "/api/batch", produces = MediaType.APPLICATION_JSON_VALUE)
+@RequiredArgsConstructor
+@Tag(name = "Batch", description = "Execute several read requests in one round trip")
+public class BatchController {
+
+    private final BatchService batchService;
+
+    @Operation(
+            summary = "Execute a batch of read requests",
+            description = "Runs up to 20 GET requests (/api/users/me, /api/universities/**, /api/majors/**) with a single authentication. "
+                    + "Each result carries the status and body the request would have had on its own"
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Batch executed; see the status of each result",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ApiResponse.class)
+                    )
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid batch"
+            )
+    })
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ApiResponse<BatchResponse>> executeBatch(
+            @Parameter(description = "Sub-requests to execute", required = true)
+            @Valid @RequestBody BatchRequest batchRequest,
+            @RequestAttribute(VerifiedToken.REQUEST_ATTRIBUTE) VerifiedToken token) {
+        BatchResponse batchResponse = batchService.execute(batchRequest, token.userId());
+
+        return ResponseEntity.status(HttpStatus.OK).body(ApiResponse.success(
+                "Batch executed", batchResponse
+        ));
+    }
+}
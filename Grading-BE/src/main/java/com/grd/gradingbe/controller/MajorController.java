@@ -1,10 +1,15 @@
 package com.grd.gradingbe.controller;
 
+import com.grd.gradingbe.dto.enums.CountMode;
+import com.grd.gradingbe.dto.request.BatchLookupRequest;
 import com.grd.gradingbe.dto.request.MajorRequest;
 import com.grd.gradingbe.dto.response.ApiResponse;
+import com.grd.gradingbe.dto.response.BatchItem;
 import com.grd.gradingbe.dto.response.MajorResponse;
 import com.grd.gradingbe.dto.response.PageResponse;
 import com.grd.gradingbe.service.MajorService;
+import com.grd.gradingbe.utilities.EntityTags;
+import com.grd.gradingbe.utilities.FieldSet;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,10 +18,14 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
 
 @RestController()
 @RequestMapping(value = "/api/majors", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -45,7 +54,7 @@ public class MajorController {
             )
     })
     @GetMapping
-    public ResponseEntity<ApiResponse<PageResponse<MajorResponse>>> getAllMajors(
+    public ResponseEntity<ApiResponse<PageResponse<?>>> getAllMajors(
             @Parameter(description = "Page number (0-based)", example = "0")
             @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size", example = "10")
@@ -54,12 +63,29 @@ public class MajorController {
             @RequestParam(defaultValue = "id") String sortBy,
             @Parameter(description = "Sort direction (asc/desc)", example = "asc")
             @RequestParam(defaultValue = "asc") String sortDir,
-            @Parameter(description = "Search keyword for major name or code")
-            @RequestParam(required = false) String search
+            @Parameter(description = "Search keyword for major name, code or description (accent-insensitive, ordered by relevance)")
+            @RequestParam(required = false) String search,
+            @Parameter(description = "Keyset pagination: pass an empty cursor for the first page, then each response's nextCursor (page is ignored, no totals; sortBy id, name, code or createdAt)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "How totalElements is computed: exact (COUNT query), estimate (planner statistics / cached count) or none (only hasNext)", example = "estimate")
+            @RequestParam(defaultValue = "estimate") String count,
+            @Parameter(description = "Comma-separated response fields to return (id is always included); only those columns are read where possible", example = "id,name,logoUrl")
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest
     ) {
-        PageResponse<MajorResponse> majorPageResponse = majorService.getAllMajors(page, size, sortBy, sortDir, search);
+        String tableVersion = majorService.getMajorsVersion();
+        if (tableVersion != null
+                && webRequest.checkNotModified(EntityTags.strong(tableVersion, page, size, sortBy, sortDir, search, cursor, count, fields))) {
+            // Decided from the table version alone: the page is never loaded or serialized
+            return null;
+        }
 
-        return ResponseEntity.status(HttpStatus.OK).body(ApiResponse.success(
+        FieldSet fieldSet = FieldSet.parse(fields, FieldSet.MAJOR_FIELDS);
+        PageResponse<?> majorPageResponse = fieldSet != null
+                ? majorService.getMajorFields(fieldSet, page, size, sortBy, sortDir, search, cursor, CountMode.fromValue(count))
+                : majorService.getAllMajors(page, size, sortBy, sortDir, search, cursor, CountMode.fromValue(count));
+
+        return ResponseEntity.status(HttpStatus.OK).cacheControl(CacheControl.noCache()).body(ApiResponse.success(
                 "Successfully retrieved all majors", majorPageResponse
         ));
     }
@@ -85,14 +111,48 @@ public class MajorController {
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<MajorResponse>> getMajorById(
             @Parameter(description = "Major ID", required = true, example = "1")
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            WebRequest webRequest) {
         MajorResponse majorResponse = majorService.getMajorById(id);
+        if (majorResponse.version() != null && webRequest.checkNotModified(
+                EntityTags.strong(majorResponse.id(), majorResponse.version()), EntityTags.lastModified(majorResponse.updatedAt()))) {
+            return null;
+        }
 
-        return ResponseEntity.status(HttpStatus.OK).body(ApiResponse.success(
+        return ResponseEntity.status(HttpStatus.OK).cacheControl(CacheControl.noCache()).body(ApiResponse.success(
                 "Successfully retrieved major", majorResponse
         ));
     }
 
+    @Operation(
+            summary = "Get majors by ids or codes",
+            description = "Resolve up to 100 ids or codes in one call. Items come back in request order, with found=false for unknown keys"
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Successfully resolved majors",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ApiResponse.class)
+                    )
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "Neither or both of ids and codes given, or too many keys"
+            )
+    })
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ApiResponse<List<BatchItem<MajorResponse>>>> getMajorsBatch(
+            @Parameter(description = "Ids or codes to resolve", required = true)
+            @Valid @RequestBody BatchLookupRequest batchLookupRequest) {
+        List<BatchItem<MajorResponse>> items = majorService.getMajorsBatch(batchLookupRequest);
+
+        return ResponseEntity.status(HttpStatus.OK).body(ApiResponse.success(
+                "Successfully resolved majors", items
+        ));
+    }
+
     @Operation(
             summary = "Create a new major",
             description = "Create a new academic major with the provided information"
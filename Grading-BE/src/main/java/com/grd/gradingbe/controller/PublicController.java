@@ -1,18 +1,30 @@
 package com.grd.gradingbe.controller;
 
 import com.grd.gradingbe.dto.enums.MailType;
+import com.grd.gradingbe.dto.response.ApiResponse;
+import com.grd.gradingbe.dto.response.SuggestionResponse;
 import com.grd.gradingbe.service.MailService;
+import com.grd.gradingbe.service.SuggestionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import jakarta.mail.MessagingException;
+import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/api/public")
+@RequiredArgsConstructor
 public class PublicController {
 
+    private static final int MAX_SUGGESTIONS = SuggestionService.MAX_LIMIT;
+
+    private final SuggestionService suggestionService;
+
     @GetMapping("/health")
     public ResponseEntity<Map<String, Object>> health() {
         return ResponseEntity.ok(Map.of(
@@ -26,4 +38,20 @@ public class PublicController {
     public ResponseEntity<String> test() {
         return ResponseEntity.ok("Public endpoint works!");
     }
+
+    @Operation(
+            summary = "Suggest universities and majors",
+            description = "Prefix match on name words and codes, ignoring case and diacritics, most viewed first"
+    )
+    @GetMapping("/suggest")
+    public ResponseEntity<ApiResponse<List<SuggestionResponse>>> suggest(
+            @Parameter(description = "What the user has typed so far", example = "bach kh")
+            @RequestParam(name = "q") String query,
+            @Parameter(description = "Maximum number of suggestions (up to 20)", example = "10")
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        List<SuggestionResponse> suggestions = suggestionService.suggest(query, Math.min(limit, MAX_SUGGESTIONS));
+
+        return ResponseEntity.ok(ApiResponse.success("Successfully retrieved suggestions", suggestions));
+    }
 }
@@ -1,10 +1,18 @@
 package com.grd.gradingbe.controller;
 
+import com.grd.gradingbe.dto.enums.CountMode;
+import com.grd.gradingbe.dto.request.BatchLookupRequest;
 import com.grd.gradingbe.dto.request.UniversityRequest;
 import com.grd.gradingbe.dto.response.ApiResponse;
+import com.grd.gradingbe.dto.response.BatchItem;
+import com.grd.gradingbe.dto.response.MajorResponse;
 import com.grd.gradingbe.dto.response.PageResponse;
 import com.grd.gradingbe.dto.response.UniversityResponse;
+import com.grd.gradingbe.exception.ArgumentValidationException;
 import com.grd.gradingbe.service.UniversityService;
+import com.grd.gradingbe.utilities.CatalogIncludes;
+import com.grd.gradingbe.utilities.EntityTags;
+import com.grd.gradingbe.utilities.FieldSet;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,10 +21,15 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
 
 @RestController
 @RequestMapping(value = "/api/universities", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -44,7 +57,7 @@ public class UniversityController {
             )
     })
     @GetMapping
-    public ResponseEntity<ApiResponse<PageResponse<UniversityResponse>>> getAllUniversities(
+    public ResponseEntity<ApiResponse<PageResponse<?>>> getAllUniversities(
             @Parameter(description = "Page number (0-based)", example = "0")
             @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size", example = "10")
@@ -53,12 +66,40 @@ public class UniversityController {
             @RequestParam(defaultValue = "id") String sortBy,
             @Parameter(description = "Sort direction (asc/desc)", example = "asc")
             @RequestParam(defaultValue = "asc") String sortDir,
-            @Parameter(description = "Search keyword for university name or code")
-            @RequestParam(required = false) String search
+            @Parameter(description = "Search keyword for university name, code or description (accent-insensitive, ordered by relevance)")
+            @RequestParam(required = false) String search,
+            @Parameter(description = "Keyset pagination: pass an empty cursor for the first page, then each response's nextCursor (page is ignored, no totals; sortBy id, name, code or createdAt)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "How totalElements is computed: exact (COUNT query), estimate (planner statistics / cached count) or none (only hasNext)", example = "estimate")
+            @RequestParam(defaultValue = "estimate") String count,
+            @Parameter(description = "Comma-separated response fields to return (id is always included); only those columns are read where possible", example = "id,name,logoUrl")
+            @RequestParam(required = false) String fields,
+            @Parameter(description = "Related data to embed in each item; only majors is supported", example = "majors")
+            @RequestParam(required = false) String include,
+            WebRequest webRequest
     ) {
-        PageResponse<UniversityResponse> universityPageResponse = universityService.getAllUniversities(page, size, sortBy, sortDir, search);
+        boolean includeMajors = CatalogIncludes.majors(include);
+        if (includeMajors && StringUtils.hasText(fields)) {
+            throw new ArgumentValidationException("include cannot be combined with fields");
+        }
 
-        return ResponseEntity.status(HttpStatus.OK).body(ApiResponse.success(
+        String tableVersion = universityService.getUniversitiesVersion(includeMajors);
+        if (tableVersion != null
+                && webRequest.checkNotModified(EntityTags.strong(tableVersion, page, size, sortBy, sortDir, search, cursor, count, fields, includeMajors))) {
+            // Decided from the table version alone: the page is never loaded or serialized
+            return null;
+        }
+
+        FieldSet fieldSet = FieldSet.parse(fields, FieldSet.UNIVERSITY_FIELDS);
+        PageResponse<?> universityPageResponse;
+        if (fieldSet != null) {
+            universityPageResponse = universityService.getUniversityFields(fieldSet, page, size, sortBy, sortDir, search, cursor, CountMode.fromValue(count));
+        } else {
+            PageResponse<UniversityResponse> universities = universityService.getAllUniversities(page, size, sortBy, sortDir, search, cursor, CountMode.fromValue(count));
+            universityPageResponse = includeMajors ? universityService.withMajors(universities) : universities;
+        }
+
+        return ResponseEntity.status(HttpStatus.OK).cacheControl(CacheControl.noCache()).body(ApiResponse.success(
                 "Successfully retrieved all universities", universityPageResponse
         ));
     }
@@ -84,14 +125,87 @@ public class UniversityController {
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<UniversityResponse>> getUniversityById(
             @Parameter(description = "University ID", required = true, example = "1")
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            @Parameter(description = "Related data to embed; only majors is supported", example = "majors")
+            @RequestParam(required = false) String include,
+            WebRequest webRequest) {
         UniversityResponse universityResponse = universityService.getUniversityById(id);
+        if (CatalogIncludes.majors(include)) {
+            // Major edits do not touch the university row, so validate against the majors version too
+            String version = universityService.getUniversitiesVersion(true);
+            if (universityResponse.version() != null && version != null
+                    && webRequest.checkNotModified(EntityTags.strong(universityResponse.id(), universityResponse.version(), version))) {
+                return null;
+            }
+            universityResponse = universityService.withMajors(universityResponse);
+        } else if (universityResponse.version() != null && webRequest.checkNotModified(
+                EntityTags.strong(universityResponse.id(), universityResponse.version()), EntityTags.lastModified(universityResponse.updatedAt()))) {
+            return null;
+        }
 
-        return ResponseEntity.status(HttpStatus.OK).body(ApiResponse.success(
+        return ResponseEntity.status(HttpStatus.OK).cacheControl(CacheControl.noCache()).body(ApiResponse.success(
                 "Successfully retrieved university", universityResponse
         ));
     }
 
+    @Operation(
+            summary = "Get majors of a university",
+            description = "Retrieve every major offered by a university, in id order"
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Successfully retrieved majors of the university",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ApiResponse.class)
+                    )
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "404",
+                    description = "University not found"
+            )
+    })
+    @GetMapping("/{id}/majors")
+    public ResponseEntity<ApiResponse<List<MajorResponse>>> getUniversityMajors(
+            @Parameter(description = "University ID", required = true, example = "1")
+            @PathVariable Long id) {
+        List<MajorResponse> majors = universityService.getUniversityMajors(id);
+
+        return ResponseEntity.status(HttpStatus.OK).body(ApiResponse.success(
+                "Successfully retrieved majors of university", majors
+        ));
+    }
+
+    @Operation(
+            summary = "Get universities by ids or codes",
+            description = "Resolve up to 100 ids or codes in one call. Items come back in request order, with found=false for unknown keys"
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Successfully resolved universities",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ApiResponse.class)
+                    )
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "Neither or both of ids and codes given, or too many keys"
+            )
+    })
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ApiResponse<List<BatchItem<UniversityResponse>>>> getUniversitiesBatch(
+            @Parameter(description = "Ids or codes to resolve", required = true)
+            @Valid @RequestBody BatchLookupRequest batchLookupRequest) {
+        List<BatchItem<UniversityResponse>> items = universityService.getUniversitiesBatch(batchLookupRequest);
+
+        return ResponseEntity.status(HttpStatus.OK).body(ApiResponse.success(
+                "Successfully resolved universities", items
+        ));
+    }
+
     @Operation(
             summary = "Create a new university",
             description = "Create a new university with the provided information"
@@ -2,6 +2,7 @@ package com.grd.gradingbe.controller;
 
 import com.grd.gradingbe.dto.request.ChangePasswordRequest;
 import com.grd.gradingbe.dto.response.UserDataResponse;
+import com.grd.gradingbe.dto.token.VerifiedToken;
 import com.grd.gradingbe.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
@@ -21,15 +22,15 @@ public class UserController
     }
 
     @GetMapping("/me")
-    public ResponseEntity<UserDataResponse> getUserData(@RequestHeader("Authorization") String header)
+    public ResponseEntity<UserDataResponse> getUserData(@RequestAttribute(VerifiedToken.REQUEST_ATTRIBUTE) VerifiedToken token)
     {
-        return ResponseEntity.ok(userService.getUserData(header));
+        return ResponseEntity.ok(userService.getUserData(token.userId()));
     }
 
     @PutMapping("/change-password")
-    public ResponseEntity<Map<String, String>> changePassword(@RequestHeader("Authorization") String header,
+    public ResponseEntity<Map<String, String>> changePassword(@RequestAttribute(VerifiedToken.REQUEST_ATTRIBUTE) VerifiedToken token,
                                                               @Valid @RequestBody ChangePasswordRequest request)
     {
-        return ResponseEntity.ok(userService.changePassword(header, request));
+        return ResponseEntity.ok(userService.changePassword(token.userId(), request));
     }
 }
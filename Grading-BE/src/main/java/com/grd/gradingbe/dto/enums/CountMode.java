@@ -0,0 +1,25 @@
+package com.grd.gradingbe.dto.enums;
+
+import com.grd.gradingbe.exception.ArgumentValidationException;
+
+public enum CountMode
+{
+    // COUNT(*) on every request
+    EXACT,
+    // planner statistics or a periodically refreshed cached count, no extra query on the hot path
+    ESTIMATE,
+    // no totals at all, only whether a next page exists
+    NONE;
+
+    public static CountMode fromValue(String value)
+    {
+        for (CountMode mode : values())
+        {
+            if (mode.name().equalsIgnoreCase(value))
+            {
+                return mode;
+            }
+        }
+        throw new ArgumentValidationException("Invalid count mode: " + value + " (expected exact, estimate or none)");
+    }
+}
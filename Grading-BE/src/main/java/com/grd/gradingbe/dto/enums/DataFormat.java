@@ -0,0 +1,40 @@
+package com.grd.gradingbe.dto.enums;
+
+import com.grd.gradingbe.exception.ArgumentValidationException;
+import org.springframework.http.MediaType;
+
+public enum DataFormat {
+    CSV("text/csv"),
+    NDJSON("application/x-ndjson");
+
+    private final String mediaType;
+
+    DataFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public static DataFormat fromValue(String value) {
+        for (DataFormat format : values()) {
+            if (format.name().equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new ArgumentValidationException("Unsupported format: " + value + " (expected csv or ndjson)");
+    }
+
+    public static DataFormat fromContentType(String contentType) {
+        if (contentType != null) {
+            MediaType parsed = MediaType.parseMediaType(contentType);
+            for (DataFormat format : values()) {
+                if (parsed.isCompatibleWith(MediaType.parseMediaType(format.mediaType))) {
+                    return format;
+                }
+            }
+        }
+        throw new ArgumentValidationException("Unsupported content type: " + contentType + " (expected text/csv or application/x-ndjson)");
+    }
+}
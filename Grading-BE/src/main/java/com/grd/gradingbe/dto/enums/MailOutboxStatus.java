@@ -0,0 +1,9 @@
+package com.grd.gradingbe.dto.enums;
+
+public enum MailOutboxStatus
+{
+    PENDING,
+    SENDING,
+    SENT,
+    FAILED
+}
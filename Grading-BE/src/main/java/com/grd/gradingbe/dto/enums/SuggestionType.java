@@ -0,0 +1,7 @@
+package com.grd.gradingbe.dto.enums;
+
+public enum SuggestionType
+{
+    UNIVERSITY,
+    MAJOR
+}
@@ -0,0 +1,28 @@
+package com.grd.gradingbe.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Schema(name = "BatchLookupRequest", description = "Ids or codes to resolve in one call; exactly one of the two lists must be given")
+public class BatchLookupRequest {
+
+    @Schema(description = "Ids to resolve, answered in this order", example = "[1, 2, 3]")
+    @Size(max = 100, message = "At most 100 ids can be requested at once")
+    private List<@NotNull(message = "Ids cannot be null") Long> ids;
+
+    @Schema(description = "Codes to resolve (case-insensitive), answered in this order", example = "[\"VKU\", \"DUT\"]")
+    @Size(max = 100, message = "At most 100 codes can be requested at once")
+    private List<@NotBlank(message = "Codes cannot be blank") String> codes;
+}
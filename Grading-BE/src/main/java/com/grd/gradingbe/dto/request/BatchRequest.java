@@ -0,0 +1,48 @@
+package com.grd.gradingbe.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Schema(name = "BatchRequest", description = "Read requests to execute in one round trip")
+public class BatchRequest {
+
+    @Schema(description = "Sub-requests; results come back in the same order", required = true)
+    @NotEmpty(message = "Requests cannot be empty")
+    @Size(max = 20, message = "At most 20 requests can be batched")
+    private List<@Valid @NotNull(message = "Requests cannot contain null") Item> requests;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Builder
+    @Schema(name = "BatchRequestItem", description = "One sub-request of a batch")
+    public static class Item {
+
+        @Schema(description = "Client-chosen id echoed in the matching result", example = "me")
+        @Size(max = 50, message = "Id must not exceed 50 characters")
+        private String id;
+
+        @Schema(description = "HTTP method; only GET is supported", example = "GET")
+        @Builder.Default
+        private String method = "GET";
+
+        @Schema(description = "Path and query string of the request", example = "/api/universities?page=0&size=10&include=majors", required = true)
+        @NotBlank(message = "Path cannot be blank")
+        @Size(max = 2000, message = "Path must not exceed 2000 characters")
+        private String path;
+    }
+}
@@ -0,0 +1,44 @@
+package com.grd.gradingbe.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Schema(name = "MajorImportRow", description = "One CSV/NDJSON row of a major bulk import; the university is referenced by code or, as in an export, by id")
+public class MajorImportRow {
+
+    @Schema(description = "Name of the major", example = "Computer Science", required = true)
+    @NotBlank(message = "Name cannot be blank")
+    @Size(min = 1, max = 50, message = "Name must be between 1 and 50 characters")
+    private String name;
+
+    @Schema(description = "Unique code for the major; an existing major with this code is updated", example = "CS", required = true)
+    @NotBlank(message = "Code cannot be blank")
+    @Size(min = 1, max = 20, message = "Code must be between 1 and 20 characters")
+    private String code;
+
+    @Schema(description = "Description of the major", example = "A comprehensive program in computer science and software engineering")
+    @Size(max = 255, message = "Description must not exceed 255 characters")
+    private String description;
+
+    @Schema(description = "Duration of the major in years", example = "4", required = true)
+    @Min(value = 1, message = "Duration must be between 1 and 5 years")
+    @Max(value = 5, message = "Duration must be between 1 and 5 years")
+    private int durationYears;
+
+    @Schema(description = "Code of the university this major belongs to; required unless universityId is given", example = "VKU")
+    private String universityCode;
+
+    @Schema(description = "Id of the university this major belongs to, as written by the majors export; used when universityCode is absent", example = "1")
+    private Long universityId;
+}
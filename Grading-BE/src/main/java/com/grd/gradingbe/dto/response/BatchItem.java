@@ -0,0 +1,22 @@
+package com.grd.gradingbe.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(name = "BatchItem", description = "Result for one key of a batch lookup, at the same position as in the request")
+public record BatchItem<T>(
+        @Schema(description = "The id or code as it was requested", example = "VKU")
+        String key,
+
+        @Schema(description = "Whether a record exists for the key", example = "true")
+        boolean found,
+
+        @Schema(description = "The record; absent when not found")
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        T data
+) {
+
+    public static <T> BatchItem<T> of(Object key, T data) {
+        return new BatchItem<>(String.valueOf(key), data != null, data);
+    }
+}
@@ -0,0 +1,30 @@
+package com.grd.gradingbe.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(name = "BatchResponse", description = "Results of a batch, one per sub-request in request order")
+public record BatchResponse(
+        @Schema(description = "Per sub-request results")
+        List<Result> responses,
+
+        @Schema(description = "Server-side time for the whole batch in milliseconds", example = "35")
+        long durationMs
+) {
+    @Schema(name = "BatchResult", description = "Outcome of one sub-request")
+    public record Result(
+            @Schema(description = "Id of the sub-request, if one was given", example = "me")
+            String id,
+
+            @Schema(description = "HTTP status the request would have had on its own", example = "200")
+            int status,
+
+            @Schema(description = "Body the request would have had on its own")
+            Object body,
+
+            @Schema(description = "Server-side time of this sub-request in milliseconds", example = "4")
+            long durationMs
+    ) {
+    }
+}
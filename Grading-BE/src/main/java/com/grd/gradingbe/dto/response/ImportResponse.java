@@ -0,0 +1,41 @@
+package com.grd.gradingbe.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+
+import java.util.List;
+
+@Builder
+@Schema(name = "ImportResponse", description = "Outcome of a bulk import")
+public record ImportResponse(
+        @Schema(description = "Data rows read from the body (header excluded)", example = "100000")
+        long processed,
+
+        @Schema(description = "Rows inserted or updated", example = "99990")
+        long imported,
+
+        @Schema(description = "Rows rejected", example = "10")
+        long failed,
+
+        @Schema(description = "Wall-clock time of the import in milliseconds", example = "4200")
+        long durationMs,
+
+        @Schema(description = "Rejected rows with reasons; capped, see errorsTruncated")
+        List<RowError> errors,
+
+        @Schema(description = "Whether more rows failed than are listed in errors", example = "false")
+        boolean errorsTruncated
+) {
+    @Schema(name = "ImportRowError", description = "A rejected import row")
+    public record RowError(
+            @Schema(description = "1-based line of the row in the body (CSV: line where the record starts)", example = "42")
+            long line,
+
+            @Schema(description = "Code of the row when it could be read", example = "VKU")
+            String code,
+
+            @Schema(description = "Why the row was rejected", example = "Unknown university code: XYZ")
+            String message
+    ) {
+    }
+}
@@ -34,6 +34,9 @@ public record MajorResponse(
         String updatedAt,
         
         @Schema(description = "User who last updated this major", example = "admin")
-        String updatedBy
+        String updatedBy,
+        
+        @Schema(description = "Version of the record, incremented on every update; the ETag of the single-item endpoint", example = "3")
+        Long version
 ) {
 }
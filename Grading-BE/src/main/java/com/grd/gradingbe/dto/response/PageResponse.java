@@ -5,8 +5,10 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
+import java.util.function.Function;
 
 @Data
 @NoArgsConstructor
@@ -18,17 +20,17 @@ public class PageResponse<T> {
     @Schema(description = "List of items for the current page")
     private List<T> content;
     
-    @Schema(description = "Current page number (0-based)", example = "0")
-    private int page;
+    @Schema(description = "Current page number (0-based); null in cursor mode", example = "0")
+    private Integer page;
     
     @Schema(description = "Number of items per page", example = "10")
     private int size;
     
-    @Schema(description = "Total number of items", example = "100")
-    private long totalElements;
+    @Schema(description = "Total number of items; approximate with count=estimate, null with count=none and in cursor mode", example = "100")
+    private Long totalElements;
     
-    @Schema(description = "Total number of pages", example = "10")
-    private int totalPages;
+    @Schema(description = "Total number of pages; derived from totalElements, null when it is", example = "10")
+    private Integer totalPages;
     
     @Schema(description = "Whether this is the first page", example = "true")
     private boolean first;
@@ -38,4 +40,46 @@ public class PageResponse<T> {
     
     @Schema(description = "Whether the page is empty", example = "false")
     private boolean empty;
+    
+    @Schema(description = "Opaque cursor for the next page in cursor mode; null on the last page", example = "eyJzb3J0QnkiOiJuYW1lIn0")
+    private String nextCursor;
+
+    @Schema(description = "Whether another page follows this one", example = "true")
+    private boolean hasNext;
+
+    /**
+     * Same page metadata with each item converted.
+     */
+    public <R> PageResponse<R> map(Function<? super T, ? extends R> converter) {
+        return PageResponse.<R>builder()
+                .content(content.stream().<R>map(converter).toList())
+                .page(page)
+                .size(size)
+                .totalElements(totalElements)
+                .totalPages(totalPages)
+                .first(first)
+                .last(last)
+                .empty(empty)
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    public static <T> PageResponse<T> of(Slice<?> slice, List<T> content, Long totalElements) {
+        Integer totalPages = totalElements == null || slice.getSize() == 0
+                ? null
+                : (int) Math.ceil((double) totalElements / slice.getSize());
+
+        return PageResponse.<T>builder()
+                .content(content)
+                .page(slice.getNumber())
+                .size(slice.getSize())
+                .totalElements(totalElements)
+                .totalPages(totalPages)
+                .first(slice.isFirst())
+                .last(slice.isLast())
+                .empty(slice.isEmpty())
+                .hasNext(slice.hasNext())
+                .build();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.grd.gradingbe.dto.response;
+
+import com.grd.gradingbe.dto.enums.SuggestionType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+
+@Builder
+@Schema(name = "SuggestionResponse", description = "Typeahead suggestion for a university or major")
+public record SuggestionResponse(
+        @Schema(description = "Kind of catalog entry", example = "UNIVERSITY")
+        SuggestionType type,
+
+        @Schema(description = "Identifier of the university or major", example = "1")
+        Long id,
+
+        @Schema(description = "Display name", example = "Đại học Bách Khoa")
+        String name,
+
+        @Schema(description = "Code", example = "BKA")
+        String code
+) {
+}
@@ -1,8 +1,11 @@
 package com.grd.gradingbe.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Builder;
 
+import java.util.List;
+
 @Builder
 @Schema(name = "UniversityResponse", description = "Response payload containing university information")
 public record UniversityResponse (
@@ -46,6 +49,18 @@ public record UniversityResponse (
         String updatedAt,
         
         @Schema(description = "User who last updated this university", example = "admin")
-        String updatedBy
+        String updatedBy,
+        
+        @Schema(description = "Version of the record, incremented on every update; the ETag of the single-item endpoint", example = "3")
+        Long version,
+
+        @Schema(description = "Majors of the university in id order; only present with include=majors")
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        List<MajorResponse> majors
 ) {
+
+    public UniversityResponse withMajors(List<MajorResponse> majors) {
+        return new UniversityResponse(id, name, code, address, website, typeUniversity, phoneNumber, email,
+                description, logoUrl, createdAt, createdBy, updatedAt, updatedBy, version, majors);
+    }
 }
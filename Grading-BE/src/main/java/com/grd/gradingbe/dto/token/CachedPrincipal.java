@@ -0,0 +1,15 @@
+package com.grd.gradingbe.dto.token;
+
+import com.grd.gradingbe.dto.enums.Role;
+
+/**
+ * The slice of a user that the JWT filter needs on every request.
+ * {@code version} is the per-user invalidation counter the entry was loaded under.
+ */
+public record CachedPrincipal(
+        Integer userId,
+        Role role,
+        boolean active,
+        long version
+) {
+}
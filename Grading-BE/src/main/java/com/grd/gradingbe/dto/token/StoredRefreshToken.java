@@ -0,0 +1,13 @@
+package com.grd.gradingbe.dto.token;
+
+import java.time.LocalDateTime;
+
+public record StoredRefreshToken(
+        String token,
+        Integer userId,
+        LocalDateTime expiryDate
+) {
+    public boolean isExpired() {
+        return LocalDateTime.now().isAfter(expiryDate);
+    }
+}
@@ -0,0 +1,36 @@
+package com.grd.gradingbe.dto.token;
+
+import com.grd.gradingbe.dto.enums.TokenType;
+import io.jsonwebtoken.Claims;
+
+import java.time.Instant;
+
+/**
+ * Result of a single signature/type/expiry check on a JWT.
+ * The filter stores it on the request so later layers never parse the token again.
+ */
+public record VerifiedToken(
+        TokenType type,
+        String subject,
+        Claims claims,
+        Instant issuedAt,
+        Instant expiresAt
+) {
+    // A literal so it can be used in @RequestAttribute
+    public static final String REQUEST_ATTRIBUTE = "com.grd.gradingbe.dto.token.VerifiedToken";
+
+    public Integer userId() {
+        return Integer.valueOf(subject);
+    }
+
+    /**
+     * The {@code jti} claim; null for tokens issued before access tokens carried one.
+     */
+    public String tokenId() {
+        return claims.getId();
+    }
+
+    public <T> T claim(String name, Class<T> requiredType) {
+        return claims.get(name, requiredType);
+    }
+}
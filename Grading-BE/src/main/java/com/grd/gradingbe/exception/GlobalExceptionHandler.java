@@ -152,6 +152,19 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(errorResponseDTO, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ErrorResponse> TooManyRequestsException(TooManyRequestsException exception, WebRequest webRequest) {
+        ErrorResponse errorResponseDTO = new ErrorResponse(
+                webRequest.getDescription(false),
+                HttpStatus.TOO_MANY_REQUESTS,
+                exception.getMessage(),
+                LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()))
+                .body(errorResponseDTO);
+    }
+
     @ExceptionHandler(ArgumentValidationException.class)
     public ResponseEntity<ErrorResponse> ArgumentValidationException(ArgumentValidationException exception, WebRequest webRequest) {
         ErrorResponse errorResponseDTO = new ErrorResponse(
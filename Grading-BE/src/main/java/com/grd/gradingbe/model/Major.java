@@ -10,15 +10,27 @@ import lombok.*;
 @NoArgsConstructor
 @Builder
 @Entity
-@Table(name = "majors")
+@Table(name = "majors", indexes = {
+        // (sort column, id) pairs for keyset pagination
+        @Index(name = "idx_majors_name_id", columnList = "name, id"),
+        @Index(name = "idx_majors_code_id", columnList = "code, id"),
+        @Index(name = "idx_majors_created_at_id", columnList = "created_at, id")
+})
 public class Major extends BaseEntity {
+    // Sequence ids with a pooled block of 50 so inserts can be batched; the bulk import allocates from the same sequence
+    public static final int ID_ALLOCATION_SIZE = 50;
+    public static final String ID_SEQUENCE = "majors_seq";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
+    // NOT NULL like code and createdAt: cursor pagination seeks on them and a NULL key never compares
+    @Column(nullable = false)
     private String name;
 
-    @Column(unique = true)
+    @Column(unique = true, nullable = false)
     private String code;
 
     private String description;
@@ -0,0 +1,80 @@
+package com.grd.gradingbe.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.stereotype.Repository;
+
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tuple queries that select only the requested columns instead of whole entities.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CatalogProjectionRepository {
+
+    private final EntityManager entityManager;
+
+    /**
+     * One page of {@code type} with only the given attribute paths selected, keyed by response field.
+     * Nulls in {@code emptyWhenNull} fields come back as "", as the full response renders them.
+     * Reads one extra row to tell whether a next page exists instead of counting.
+     */
+    public <E> Slice<Map<String, Object>> findFields(Class<E> type, Map<String, String> fieldPaths,
+                                                     Set<String> emptyWhenNull, Pageable pageable) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<E> root = query.from(type);
+
+        List<Selection<?>> selections = new ArrayList<>();
+        fieldPaths.forEach((field, path) -> selections.add(path(root, path).alias(field)));
+        query.multiselect(selections);
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, builder));
+
+        List<Tuple> rows = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        List<Map<String, Object>> content = new ArrayList<>(Math.min(rows.size(), pageable.getPageSize()));
+        for (Tuple row : rows.subList(0, Math.min(rows.size(), pageable.getPageSize()))) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (String field : fieldPaths.keySet()) {
+                Object value = row.get(field);
+                values.put(field, value == null && emptyWhenNull.contains(field) ? "" : toJsonValue(value));
+            }
+            content.add(values);
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    // university.id resolves to the foreign key column; no join is added
+    private static Path<?> path(Root<?> root, String path) {
+        Path<?> current = root;
+        for (String attribute : path.split("\\.")) {
+            current = current.get(attribute);
+        }
+        return current;
+    }
+
+    // Same rendering as the response mappers: enums by their display value, timestamps as ISO strings
+    private static Object toJsonValue(Object value) {
+        return value instanceof Enum<?> || value instanceof TemporalAccessor ? value.toString() : value;
+    }
+}
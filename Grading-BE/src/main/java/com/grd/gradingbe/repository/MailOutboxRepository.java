@@ -0,0 +1,91 @@
+package com.grd.gradingbe.repository;
+
+import com.grd.gradingbe.dto.enums.MailOutboxStatus;
+import com.grd.gradingbe.model.MailOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface MailOutboxRepository extends JpaRepository<MailOutbox, Long> {
+
+    /**
+     * Leases up to {@code limit} due messages (or ones whose lease ran out) to the caller and
+     * returns them. SKIP LOCKED lets several nodes claim disjoint batches concurrently.
+     */
+    @Transactional
+    @Query(value = """
+            UPDATE mail_outbox
+            SET status = 'SENDING', locked_until = :leaseUntil, attempts = attempts + 1
+            WHERE id IN (
+                SELECT id FROM mail_outbox
+                WHERE (status = 'PENDING' AND next_attempt_at <= :now)
+                   OR (status = 'SENDING' AND locked_until < :now)
+                ORDER BY next_attempt_at
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            )
+            RETURNING *
+            """, nativeQuery = true)
+    List<MailOutbox> claimBatch(@Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil, @Param("limit") int limit);
+
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE MailOutbox m
+            SET m.status = com.grd.gradingbe.dto.enums.MailOutboxStatus.SENT, m.sentAt = :sentAt, m.lockedUntil = null, m.lastError = null,
+                m.link = null
+            WHERE m.id IN :ids
+            """)
+    int markSent(@Param("ids") List<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE MailOutbox m
+            SET m.status = com.grd.gradingbe.dto.enums.MailOutboxStatus.FAILED, m.lockedUntil = null, m.lastError = :lastError,
+                m.link = null
+            WHERE m.id = :id
+            """)
+    int markFailed(@Param("id") Long id, @Param("lastError") String lastError);
+
+    /**
+     * Deletes up to {@code batchSize} SENT rows sent before {@code sentBefore} and FAILED rows
+     * created before {@code failedBefore}.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            DELETE FROM mail_outbox
+            WHERE id IN (
+                SELECT id FROM mail_outbox
+                WHERE (status = 'SENT' AND sent_at < :sentBefore)
+                   OR (status = 'FAILED' AND created_at < :failedBefore)
+                LIMIT :batchSize
+                FOR UPDATE SKIP LOCKED
+            )
+            """, nativeQuery = true)
+    int deleteFinishedBatch(@Param("sentBefore") LocalDateTime sentBefore,
+                            @Param("failedBefore") LocalDateTime failedBefore,
+                            @Param("batchSize") int batchSize);
+
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE MailOutbox m
+            SET m.status = :status, m.nextAttemptAt = :nextAttemptAt, m.lockedUntil = null, m.lastError = :lastError
+            WHERE m.id = :id
+            """)
+    int reschedule(@Param("id") Long id,
+                   @Param("status") MailOutboxStatus status,
+                   @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                   @Param("lastError") String lastError);
+
+    long countByStatus(MailOutboxStatus status);
+}
@@ -1,10 +1,83 @@
 package com.grd.gradingbe.repository;
 
 import com.grd.gradingbe.model.Major;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
-public interface MajorRepository extends JpaRepository<Major, Long> {
+public interface MajorRepository extends JpaRepository<Major, Long>, JpaSpecificationExecutor<Major> {
+
+    String SEARCH_CONDITION = """
+            f_unaccent(lower(coalesce(m.name, '') || ' ' || coalesce(m.code, '') || ' ' || coalesce(m.description, ''))) LIKE '%' || f_unaccent(lower(:pattern)) || '%'
+            OR f_unaccent(lower(:q)) <% f_unaccent(lower(coalesce(m.name, '') || ' ' || coalesce(m.code, '') || ' ' || coalesce(m.description, '')))
+            """;
+
+    /**
+     * Accent-insensitive search over name, code and description, served by the trigram GIN index
+     * on the same expression. Substring hits and fuzzy word hits both match; exact code matches rank
+     * first, then closeness to the name.
+     */
+    @Query(value = "SELECT m.* FROM majors m WHERE " + SEARCH_CONDITION + """
+            ORDER BY lower(m.code) = lower(:q) DESC,
+                     word_similarity(f_unaccent(lower(:q)), f_unaccent(lower(coalesce(m.name, '')))) DESC,
+                     word_similarity(f_unaccent(lower(:q)), f_unaccent(lower(coalesce(m.name, '') || ' ' || coalesce(m.code, '') || ' ' || coalesce(m.description, '')))) DESC,
+                     m.id
+            """,
+            countQuery = "SELECT count(*) FROM majors m WHERE " + SEARCH_CONDITION,
+            nativeQuery = true)
+    Page<Major> search(@Param("q") String q, @Param("pattern") String pattern, Pageable pageable);
+
+    /**
+     * Same as {@link #search} without the count query, for callers that do not need exact totals.
+     */
+    @Query(value = "SELECT m.* FROM majors m WHERE " + SEARCH_CONDITION + """
+            ORDER BY lower(m.code) = lower(:q) DESC,
+                     word_similarity(f_unaccent(lower(:q)), f_unaccent(lower(coalesce(m.name, '')))) DESC,
+                     word_similarity(f_unaccent(lower(:q)), f_unaccent(lower(coalesce(m.name, '') || ' ' || coalesce(m.code, '') || ' ' || coalesce(m.description, '')))) DESC,
+                     m.id
+            """,
+            nativeQuery = true)
+    Slice<Major> searchSlice(@Param("q") String q, @Param("pattern") String pattern, Pageable pageable);
+
+    @Query(value = "SELECT count(*) FROM majors m WHERE " + SEARCH_CONDITION, nativeQuery = true)
+    long countSearch(@Param("q") String q, @Param("pattern") String pattern);
+
+    Slice<Major> findAllBy(Pageable pageable);
+
+    /**
+     * Case-insensitive lookup of many codes in one query; expects lower-cased codes.
+     */
+    @Query("SELECT m FROM Major m WHERE lower(m.code) IN :codes")
+    List<Major> findByCodesIgnoreCase(@Param("codes") Collection<String> codes);
+
+    /**
+     * Majors of all the given universities in one query, in id order; filters on the foreign key
+     * without joining universities.
+     */
+    @Query("SELECT m FROM Major m WHERE m.university.id IN :universityIds ORDER BY m.id")
+    List<Major> findByUniversityIds(@Param("universityIds") Collection<Long> universityIds);
 
+    /**
+     * Every row in id order as a lazily fetched stream for exports. Must be consumed inside a
+     * transaction (the Postgres driver only honours the fetch size with autocommit off) and closed.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT m FROM Major m ORDER BY m.id")
+    Stream<Major> streamAllBy();
 }
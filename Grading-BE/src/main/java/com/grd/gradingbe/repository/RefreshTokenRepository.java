@@ -1,7 +1,6 @@
 package com.grd.gradingbe.repository;
 
 import com.grd.gradingbe.model.RefreshToken;
-import com.grd.gradingbe.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -14,22 +13,45 @@ import java.util.Optional;
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
     
-    Optional<RefreshToken> findByToken(String token);
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
     
-    Optional<RefreshToken> findByTokenAndRevokedFalse(String token);
+    Optional<RefreshToken> findByTokenHashAndRevokedFalse(String tokenHash);
+
+    /**
+     * Revokes the token if it is still active and returns its owner, in one statement.
+     * Concurrent callers serialize on the row lock, so only one of them gets a user id back.
+     */
+    @Query(value = """
+            UPDATE refresh_tokens
+            SET revoked = true, last_used = :now
+            WHERE token = :tokenHash AND revoked = false AND expiry_date > :now
+            RETURNING user_id
+            """, nativeQuery = true)
+    Optional<Integer> revokeForRotation(@Param("tokenHash") String tokenHash, @Param("now") LocalDateTime now);
     
     @Modifying
-    @Query("DELETE FROM RefreshToken rt WHERE rt.user = :user")
-    void deleteByUser(@Param("user") User user);
+    @Query("DELETE FROM RefreshToken rt WHERE rt.user.id = :userId")
+    void deleteByUserId(@Param("userId") Integer userId);
     
+    /**
+     * Deletes at most {@code batchSize} expired rows so each batch holds its locks only briefly.
+     */
     @Modifying
-    @Query("DELETE FROM RefreshToken rt WHERE rt.expiryDate < :now")
-    void deleteExpiredTokens(@Param("now") LocalDateTime now);
+    @Query(value = """
+            DELETE FROM refresh_tokens
+            WHERE id IN (
+                SELECT id FROM refresh_tokens
+                WHERE expiry_date < :now
+                LIMIT :batchSize
+                FOR UPDATE SKIP LOCKED
+            )
+            """, nativeQuery = true)
+    int deleteExpiredTokenBatch(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
     
     @Modifying
-    @Query("UPDATE RefreshToken rt SET rt.revoked = true WHERE rt.user = :user AND rt.revoked = false")
-    void revokeAllUserTokens(@Param("user") User user);
+    @Query("UPDATE RefreshToken rt SET rt.revoked = true WHERE rt.user.id = :userId AND rt.revoked = false")
+    void revokeAllUserTokens(@Param("userId") Integer userId);
     
-    @Query("SELECT COUNT(rt) FROM RefreshToken rt WHERE rt.user = :user AND rt.revoked = false AND rt.expiryDate > :now")
-    long countActiveTokensByUser(@Param("user") User user, @Param("now") LocalDateTime now);
+    @Query("SELECT COUNT(rt) FROM RefreshToken rt WHERE rt.user.id = :userId AND rt.revoked = false AND rt.expiryDate > :now")
+    long countActiveTokensByUser(@Param("userId") Integer userId, @Param("now") LocalDateTime now);
 }
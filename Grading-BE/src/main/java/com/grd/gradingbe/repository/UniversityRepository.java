@@ -1,9 +1,76 @@
 package com.grd.gradingbe.repository;
 
 import com.grd.gradingbe.model.University;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
-public interface UniversityRepository extends JpaRepository<University, Long> {
+public interface UniversityRepository extends JpaRepository<University, Long>, JpaSpecificationExecutor<University> {
+
+    String SEARCH_CONDITION = """
+            f_unaccent(lower(coalesce(u.name, '') || ' ' || coalesce(u.code, '') || ' ' || coalesce(u.description, ''))) LIKE '%' || f_unaccent(lower(:pattern)) || '%'
+            OR f_unaccent(lower(:q)) <% f_unaccent(lower(coalesce(u.name, '') || ' ' || coalesce(u.code, '') || ' ' || coalesce(u.description, '')))
+            """;
+
+    /**
+     * Accent-insensitive search over name, code and description, served by the trigram GIN index
+     * on the same expression. Substring hits and fuzzy word hits both match; exact code matches rank
+     * first, then closeness to the name.
+     */
+    @Query(value = "SELECT u.* FROM universities u WHERE " + SEARCH_CONDITION + """
+            ORDER BY lower(u.code) = lower(:q) DESC,
+                     word_similarity(f_unaccent(lower(:q)), f_unaccent(lower(coalesce(u.name, '')))) DESC,
+                     word_similarity(f_unaccent(lower(:q)), f_unaccent(lower(coalesce(u.name, '') || ' ' || coalesce(u.code, '') || ' ' || coalesce(u.description, '')))) DESC,
+                     u.id
+            """,
+            countQuery = "SELECT count(*) FROM universities u WHERE " + SEARCH_CONDITION,
+            nativeQuery = true)
+    Page<University> search(@Param("q") String q, @Param("pattern") String pattern, Pageable pageable);
+
+    /**
+     * Same as {@link #search} without the count query, for callers that do not need exact totals.
+     */
+    @Query(value = "SELECT u.* FROM universities u WHERE " + SEARCH_CONDITION + """
+            ORDER BY lower(u.code) = lower(:q) DESC,
+                     word_similarity(f_unaccent(lower(:q)), f_unaccent(lower(coalesce(u.name, '')))) DESC,
+                     word_similarity(f_unaccent(lower(:q)), f_unaccent(lower(coalesce(u.name, '') || ' ' || coalesce(u.code, '') || ' ' || coalesce(u.description, '')))) DESC,
+                     u.id
+            """,
+            nativeQuery = true)
+    Slice<University> searchSlice(@Param("q") String q, @Param("pattern") String pattern, Pageable pageable);
+
+    @Query(value = "SELECT count(*) FROM universities u WHERE " + SEARCH_CONDITION, nativeQuery = true)
+    long countSearch(@Param("q") String q, @Param("pattern") String pattern);
+
+    Slice<University> findAllBy(Pageable pageable);
+
+    /**
+     * Case-insensitive lookup of many codes in one query; expects lower-cased codes.
+     */
+    @Query("SELECT u FROM University u WHERE lower(u.code) IN :codes")
+    List<University> findByCodesIgnoreCase(@Param("codes") Collection<String> codes);
+
+    /**
+     * Every row in id order as a lazily fetched stream for exports. Must be consumed inside a
+     * transaction (the Postgres driver only honours the fetch size with autocommit off) and closed.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u FROM University u ORDER BY u.id")
+    Stream<University> streamAllBy();
 }
@@ -3,8 +3,13 @@ package com.grd.gradingbe.repository;
 import com.grd.gradingbe.dto.enums.Role;
 import com.grd.gradingbe.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
@@ -15,4 +20,19 @@ public interface UserRepository extends JpaRepository<User, Integer>
     Optional<User> findUserByRole(Role role);
 
     boolean existsByUsername(String admin);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password_hash = :passwordHash WHERE u.id = :userId")
+    int updatePasswordHash(@Param("userId") Integer userId, @Param("passwordHash") String passwordHash);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password_hash = :passwordHash, u.updated_at = :updatedAt WHERE u.id = :userId")
+    int updatePassword(@Param("userId") Integer userId, @Param("passwordHash") String passwordHash, @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.verified = true, u.is_active = true, u.updated_at = :updatedAt WHERE u.id = :userId")
+    int activate(@Param("userId") Integer userId, @Param("updatedAt") LocalDateTime updatedAt);
 }
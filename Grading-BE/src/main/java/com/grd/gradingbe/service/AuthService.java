@@ -10,13 +10,13 @@ import java.util.Map;
 
 public interface AuthService
 {
-    LoginResponse login(LoginRequest request);
+    LoginResponse login(LoginRequest request, String clientIp);
 
     public Map<String, String> register(RegisterRequest request);
   
     LoginResponse refreshToken(String refreshToken);
   
-    void logout(String refreshToken);
+    void logout(String refreshToken, String accessToken);
     
     Map<String, String> verifyRegistration(String token);
 
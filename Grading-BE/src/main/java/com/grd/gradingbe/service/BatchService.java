@@ -0,0 +1,13 @@
+package com.grd.gradingbe.service;
+
+import com.grd.gradingbe.dto.request.BatchRequest;
+import com.grd.gradingbe.dto.response.BatchResponse;
+
+public interface BatchService {
+
+    /**
+     * Runs the sub-requests of an already authenticated caller, independent ones in parallel.
+     * Failures are reported per item and never fail the batch.
+     */
+    BatchResponse execute(BatchRequest request, Integer userId);
+}
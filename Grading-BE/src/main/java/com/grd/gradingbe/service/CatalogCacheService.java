@@ -0,0 +1,27 @@
+package com.grd.gradingbe.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import java.util.function.Supplier;
+
+public interface CatalogCacheService {
+    String UNIVERSITY = "university";
+    String MAJOR = "major";
+
+    /**
+     * Read-through lookup of a single entity response. The loader runs on a miss and whenever
+     * Redis is unavailable; its exceptions propagate and nothing is cached.
+     */
+    <T> T getEntity(String entity, Long id, TypeReference<T> type, Supplier<T> loader);
+
+    /**
+     * Read-through lookup of a list page keyed by its request parameters.
+     */
+    <T> T getList(String entity, String params, TypeReference<T> type, Supplier<T> loader);
+
+    /**
+     * Drops the cached entity and every cached list page of that entity type.
+     * Runs after commit when called inside a transaction.
+     */
+    void evict(String entity, Long id);
+}
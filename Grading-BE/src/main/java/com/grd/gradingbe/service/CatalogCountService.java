@@ -0,0 +1,16 @@
+package com.grd.gradingbe.service;
+
+import java.util.OptionalLong;
+
+public interface CatalogCountService {
+    String UNIVERSITIES = "universities";
+    String MAJORS = "majors";
+
+    /**
+     * Approximate number of rows in the table, or matching the search when one is given.
+     * Unfiltered counts come from Postgres planner statistics; search counts are exact counts
+     * computed and refreshed in the background, so a search not counted yet returns empty
+     * instead of waiting for the count.
+     */
+    OptionalLong estimate(String table, String search);
+}
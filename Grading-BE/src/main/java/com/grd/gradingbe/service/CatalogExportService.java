@@ -0,0 +1,16 @@
+package com.grd.gradingbe.service;
+
+import com.grd.gradingbe.dto.enums.DataFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface CatalogExportService {
+    /**
+     * Writes every university to the stream as it is read from the database and returns the row count.
+     * Memory use does not depend on the number of rows.
+     */
+    long exportUniversities(OutputStream out, DataFormat format) throws IOException;
+
+    long exportMajors(OutputStream out, DataFormat format) throws IOException;
+}
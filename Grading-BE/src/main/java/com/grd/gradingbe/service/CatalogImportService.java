@@ -0,0 +1,19 @@
+package com.grd.gradingbe.service;
+
+import com.grd.gradingbe.dto.enums.DataFormat;
+import com.grd.gradingbe.dto.response.ImportResponse;
+
+import java.io.InputStream;
+
+public interface CatalogImportService {
+    /**
+     * Streams university rows from the body and upserts them by code in JDBC batches.
+     * Invalid rows are reported and skipped; the rest of the import continues.
+     */
+    ImportResponse importUniversities(InputStream body, DataFormat format);
+
+    /**
+     * Same as {@link #importUniversities} for majors, which reference their university by code.
+     */
+    ImportResponse importMajors(InputStream body, DataFormat format);
+}
@@ -0,0 +1,31 @@
+package com.grd.gradingbe.service;
+
+import com.grd.gradingbe.model.Major;
+import com.grd.gradingbe.model.University;
+import com.grd.gradingbe.utilities.CatalogSnapshot;
+
+public interface CatalogSnapshotService {
+    /**
+     * The current snapshot; {@link CatalogSnapshot#EMPTY} until the first load completes.
+     */
+    CatalogSnapshot current();
+
+    /**
+     * Reloads this node's snapshot, waiting for the reload, and tells the other nodes to reload theirs.
+     * For writes that touch many rows; runs after commit when called inside a transaction.
+     */
+    void invalidate();
+
+    /**
+     * Puts the saved university into this node's snapshot before returning (after commit inside a
+     * transaction), so the writer reads its own write; the full reload and the other nodes follow
+     * in the background.
+     */
+    void universitySaved(University university);
+
+    void universityDeleted(Long id);
+
+    void majorSaved(Major major);
+
+    void majorDeleted(Long id);
+}
@@ -1,6 +1,7 @@
 package com.grd.gradingbe.service;
 
 import com.grd.gradingbe.dto.enums.TokenType;
+import com.grd.gradingbe.dto.token.VerifiedToken;
 import com.grd.gradingbe.model.User;
 import io.jsonwebtoken.Claims;
 
@@ -16,6 +17,14 @@ public interface JwtService
 
     String generatePayloadToken(User user, Map<String, Object> claims, long time, ChronoUnit unit);
 
+    /**
+     * Parses the token once and checks signature, {@code typ} header and expiry.
+     *
+     * @throws io.jsonwebtoken.ExpiredJwtException if the token is well-formed but expired
+     * @throws com.grd.gradingbe.exception.JwtManagementException for any other failure
+     */
+    VerifiedToken verify(TokenType type, String token);
+
     boolean validateToken(String token);
 
     boolean isTokenExpired(TokenType type, String token);
@@ -0,0 +1,14 @@
+package com.grd.gradingbe.service;
+
+public interface LoginThrottleService
+{
+    /**
+     * Rejects with {@link com.grd.gradingbe.exception.TooManyRequestsException} when either the
+     * username or the client address is currently locked out. Never touches the database.
+     */
+    void checkAllowed(String username, String clientIp);
+
+    void recordFailure(String username, String clientIp);
+
+    void recordSuccess(String username, String clientIp);
+}
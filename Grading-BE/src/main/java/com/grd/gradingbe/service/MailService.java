@@ -1,9 +1,22 @@
 package com.grd.gradingbe.service;
 
 import com.grd.gradingbe.dto.enums.MailType;
-import jakarta.mail.MessagingException;
 
 public interface MailService
 {
-    void sendLinkEmail(MailType type, String to, String link) throws MessagingException;
+    /**
+     * Writes the mail to the outbox. Joins the caller's transaction, so the mail is only sent if
+     * the caller commits.
+     */
+    void queueLinkEmail(MailType type, String to, String link);
+
+    /**
+     * Claims due outbox entries and sends them in batches on the mail worker pool.
+     */
+    void deliverPending();
+
+    /**
+     * Deletes sent and finally failed outbox entries past their retention; returns how many.
+     */
+    long purgeFinished();
 }
@@ -1,12 +1,36 @@
 package com.grd.gradingbe.service;
 
+import com.grd.gradingbe.dto.enums.CountMode;
+import com.grd.gradingbe.dto.request.BatchLookupRequest;
 import com.grd.gradingbe.dto.request.MajorRequest;
+import com.grd.gradingbe.dto.response.BatchItem;
 import com.grd.gradingbe.dto.response.MajorResponse;
 import com.grd.gradingbe.dto.response.PageResponse;
+import com.grd.gradingbe.utilities.FieldSet;
+
+import java.util.List;
+import java.util.Map;
 
 public interface MajorService {
-    PageResponse<MajorResponse> getAllMajors(int page, int size, String sortBy, String sortDir, String search);
+    PageResponse<MajorResponse> getAllMajors(int page, int size, String sortBy, String sortDir, String search, String cursor, CountMode countMode);
+
+    /**
+     * Like {@link #getAllMajors} but with only the selected fields in each item. Plain listing selects
+     * just those columns; other modes narrow the full page.
+     */
+    PageResponse<Map<String, Object>> getMajorFields(FieldSet fields, int page, int size, String sortBy, String sortDir, String search, String cursor, CountMode countMode);
+
+    /**
+     * Cheap version of the whole major table, for list ETags; null when not known yet.
+     */
+    String getMajorsVersion();
+
     MajorResponse getMajorById(Long id);
+
+    /**
+     * Resolves the requested ids or codes with at most one query, one item per requested key in request order.
+     */
+    List<BatchItem<MajorResponse>> getMajorsBatch(BatchLookupRequest request);
     MajorResponse createMajor(MajorRequest majorRequest);
     MajorResponse updateMajor(Long id, MajorRequest majorRequest);
     void deleteMajor(Long id);
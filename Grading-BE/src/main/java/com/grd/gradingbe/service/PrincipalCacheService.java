@@ -0,0 +1,16 @@
+package com.grd.gradingbe.service;
+
+import com.grd.gradingbe.dto.token.CachedPrincipal;
+
+import java.util.Optional;
+
+public interface PrincipalCacheService
+{
+    Optional<CachedPrincipal> get(Integer userId);
+
+    /**
+     * Bumps the user's version so no node serves the cached entry again.
+     * Runs after commit when called inside a transaction.
+     */
+    void invalidate(Integer userId);
+}
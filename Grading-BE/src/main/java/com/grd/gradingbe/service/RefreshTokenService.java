@@ -1,13 +1,16 @@
 package com.grd.gradingbe.service;
 
-import com.grd.gradingbe.model.RefreshToken;
+import com.grd.gradingbe.dto.token.StoredRefreshToken;
 import com.grd.gradingbe.model.User;
 
 public interface RefreshTokenService {
     
-    RefreshToken createRefreshToken(User user);
+    StoredRefreshToken createRefreshToken(User user);
     
-    RefreshToken validateRefreshToken(String token);
+    /**
+     * Revokes {@code token} and issues its replacement atomically; fails if the token was already used.
+     */
+    StoredRefreshToken rotateRefreshToken(String token);
     
     void deleteRefreshToken(String token);
     
@@ -16,6 +19,4 @@ public interface RefreshTokenService {
     void revokeAllUserTokens(User user);
     
     void cleanupExpiredTokens();
-    
-    RefreshToken updateLastUsed(String token);
 }
@@ -0,0 +1,38 @@
+package com.grd.gradingbe.service;
+
+import com.grd.gradingbe.dto.token.StoredRefreshToken;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Persistence for refresh tokens. Selected with {@code env.jwt.refresh-token-store}
+ * ({@code jpa} by default, or {@code redis}).
+ */
+public interface RefreshTokenStore {
+
+    /**
+     * Stores the token and enforces {@code max-tokens-per-user} for its owner.
+     */
+    void save(String token, Integer userId, LocalDateTime expiryDate);
+
+    Optional<StoredRefreshToken> findActive(String token);
+
+    /**
+     * Atomically revokes {@code token} if it is still active and stores {@code newToken} for the same user.
+     *
+     * @return the owner's id, or empty if the token was unknown, revoked, expired or already rotated
+     */
+    Optional<Integer> rotate(String token, String newToken, LocalDateTime newExpiryDate);
+
+    boolean delete(String token);
+
+    void deleteAllForUser(Integer userId);
+
+    void revokeAllForUser(Integer userId);
+
+    /**
+     * @return number of tokens removed
+     */
+    long deleteExpired(LocalDateTime now);
+}
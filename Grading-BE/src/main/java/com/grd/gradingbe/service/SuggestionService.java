@@ -0,0 +1,34 @@
+package com.grd.gradingbe.service;
+
+import com.grd.gradingbe.dto.enums.SuggestionType;
+import com.grd.gradingbe.dto.response.SuggestionResponse;
+import com.grd.gradingbe.model.Major;
+import com.grd.gradingbe.model.University;
+
+import java.util.List;
+
+public interface SuggestionService {
+    /**
+     * Largest {@code limit} accepted by {@link #suggest}.
+     */
+    int MAX_LIMIT = 20;
+
+    /**
+     * Entries whose name (from any word) or code starts with the prefix, ignoring case and diacritics,
+     * most viewed first.
+     */
+    List<SuggestionResponse> suggest(String prefix, int limit);
+
+    void recordView(SuggestionType type, Long id);
+
+    void upsertUniversity(University university);
+
+    void upsertMajor(Major major);
+
+    void remove(SuggestionType type, Long id);
+
+    /**
+     * Reloads the whole index from the database, e.g. after a bulk import.
+     */
+    void rebuild();
+}
@@ -0,0 +1,16 @@
+package com.grd.gradingbe.service;
+
+import com.grd.gradingbe.dto.token.VerifiedToken;
+
+public interface TokenRevocationService
+{
+    /**
+     * Marks the access token as revoked until it would have expired anyway.
+     */
+    void revoke(VerifiedToken token);
+
+    /**
+     * Answers from the local Bloom filter when possible; only possible hits are confirmed in Redis.
+     */
+    boolean isRevoked(VerifiedToken token);
+}
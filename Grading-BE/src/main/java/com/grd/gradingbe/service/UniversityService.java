@@ -1,12 +1,54 @@
 package com.grd.gradingbe.service;
 
+import com.grd.gradingbe.dto.enums.CountMode;
+import com.grd.gradingbe.dto.request.BatchLookupRequest;
 import com.grd.gradingbe.dto.request.UniversityRequest;
-import com.grd.gradingbe.dto.response.PageResponse;
+import com.grd.gradingbe.dto.response.BatchItem;
+import com.grd.gradingbe.dto.response.MajorResponse;
 import com.grd.gradingbe.dto.response.UniversityResponse;
+import com.grd.gradingbe.dto.response.PageResponse;
+import com.grd.gradingbe.utilities.FieldSet;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 public interface UniversityService {
-    PageResponse<UniversityResponse> getAllUniversities(int page, int size, String sortBy, String sortDir, String search);
+    PageResponse<UniversityResponse> getAllUniversities(int page, int size, String sortBy, String sortDir, String search, String cursor, CountMode countMode);
+
+    /**
+     * Like {@link #getAllUniversities} but with only the selected fields in each item. Plain listing selects
+     * just those columns; other modes narrow the full page.
+     */
+    PageResponse<Map<String, Object>> getUniversityFields(FieldSet fields, int page, int size, String sortBy, String sortDir, String search, String cursor, CountMode countMode);
+
+    /**
+     * Cheap version of the whole university table, for list ETags; null when not known yet.
+     * With {@code includeMajors} it also changes whenever a major does.
+     */
+    String getUniversitiesVersion(boolean includeMajors);
+
     UniversityResponse getUniversityById(Long id);
+
+    /**
+     * Resolves the requested ids or codes with at most one query, one item per requested key in request order.
+     */
+    List<BatchItem<UniversityResponse>> getUniversitiesBatch(BatchLookupRequest request);
+
+    List<MajorResponse> getUniversityMajors(Long id);
+
+    /**
+     * Majors of each given university, loaded with at most one query however many ids are passed.
+     * Universities without majors are absent from the map.
+     */
+    Map<Long, List<MajorResponse>> getMajorsByUniversity(Collection<Long> universityIds);
+
+    /**
+     * The page with each university's majors embedded, loaded in one batch for the whole page.
+     */
+    PageResponse<UniversityResponse> withMajors(PageResponse<UniversityResponse> universities);
+
+    UniversityResponse withMajors(UniversityResponse university);
     UniversityResponse createUniversity(UniversityRequest universityRequest);
     UniversityResponse updateUniversity(Long id, UniversityRequest universityRequest);
     void deleteUniversity(Long id);
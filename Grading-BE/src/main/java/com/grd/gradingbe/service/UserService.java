@@ -7,7 +7,7 @@ import java.util.Map;
 
 public interface UserService
 {
-    UserDataResponse getUserData(String header);
+    UserDataResponse getUserData(Integer userId);
 
-    Map<String, String> changePassword(String header, ChangePasswordRequest request);
+    Map<String, String> changePassword(Integer userId, ChangePasswordRequest request);
 }
@@ -10,39 +10,40 @@ import com.grd.gradingbe.dto.request.RegisterRequest;
 import com.grd.gradingbe.dto.request.ResetPasswordRequest;
 import com.grd.gradingbe.dto.response.LoginResponse;
 import com.grd.gradingbe.dto.response.UserResponse;
+import com.grd.gradingbe.dto.token.StoredRefreshToken;
+import com.grd.gradingbe.dto.token.VerifiedToken;
 import com.grd.gradingbe.exception.*;
-import com.grd.gradingbe.model.RefreshToken;
 import com.grd.gradingbe.model.User;
 import com.grd.gradingbe.repository.UserRepository;
 import com.grd.gradingbe.service.AuthService;
 import com.grd.gradingbe.service.JwtService;
+import com.grd.gradingbe.service.LoginThrottleService;
 import com.grd.gradingbe.service.MailService;
+import com.grd.gradingbe.service.PrincipalCacheService;
 import com.grd.gradingbe.service.RefreshTokenService;
-import io.jsonwebtoken.Claims;
-import jakarta.mail.MessagingException;
+import com.grd.gradingbe.service.TokenRevocationService;
+import io.jsonwebtoken.ExpiredJwtException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataAccessException;
-import org.springframework.mail.MailSendException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
-@Transactional
 public class AuthServiceImpl implements AuthService {
 
     private final AuthenticationManager authenticationManager;
@@ -51,6 +52,10 @@ public class AuthServiceImpl implements AuthService {
     private final PasswordEncoder passwordEncoder;
     private final RefreshTokenService refreshTokenService;
     private final MailService mailService;
+    private final PrincipalCacheService principalCacheService;
+    private final LoginThrottleService loginThrottleService;
+    private final TokenRevocationService tokenRevocationService;
+    private final TransactionTemplate transactionTemplate;
 
     @Value("${env.app.backend.base-url}")
     private String backendUrl;
@@ -59,8 +64,10 @@ public class AuthServiceImpl implements AuthService {
     private String resetPasswordFrontendURL;
 
     @Override
-    public LoginResponse login(LoginRequest request) {
+    public LoginResponse login(LoginRequest request, String clientIp) {
         log.info("User login attempt: {}", request.getUsername());
+        loginThrottleService.checkAllowed(request.getUsername(), clientIp);
+
         Authentication authentication;
         try {
             authentication = authenticationManager.authenticate(
@@ -71,20 +78,30 @@ public class AuthServiceImpl implements AuthService {
             );
         } catch (BadCredentialsException e) {
             log.warn("Failed login attempt for user: {}", request.getUsername());
+            loginThrottleService.recordFailure(request.getUsername(), clientIp);
+            throw new BadCredentialsException("Invalid username or password");
+        } catch (InternalAuthenticationServiceException e) {
+            if (!(e.getCause() instanceof ResourceNotFoundException)) {
+                throw e;
+            }
+            // Unknown usernames count too, otherwise stuffing lists cost nothing to probe
+            log.warn("Failed login attempt for unknown user: {}", request.getUsername());
+            loginThrottleService.recordFailure(request.getUsername(), clientIp);
             throw new BadCredentialsException("Invalid username or password");
         }
+        loginThrottleService.recordSuccess(request.getUsername(), clientIp);
 
         User user = (User) authentication.getPrincipal();
         log.info("User logged in successfully: {}", user.getId());
 
         String accessToken = jwtService.generateAuthenticationToken(user);
-        RefreshToken refreshToken = refreshTokenService.createRefreshToken(user);
+        StoredRefreshToken refreshToken = refreshTokenService.createRefreshToken(user);
 
         UserResponse userResponse = buildUserResponse(user);
 
         return LoginResponse.builder()
                 .accessToken(accessToken)
-                .refreshToken(refreshToken.getToken())
+                .refreshToken(refreshToken.token())
                 .expiresIn(15 * 60) // 15 minutes in seconds
                 .user(userResponse)
                 .build();
@@ -163,57 +180,61 @@ public class AuthServiceImpl implements AuthService {
             throw new ResourceAlreadyExistException("Email already exist");
         }
 
+        // Hashed before the transaction below opens, so no pooled connection is held during BCrypt
+        String passwordHash = passwordEncoder.encode(request.getPassword());
+
         try
         {
-            User user = userRepository.save(
-                    User.builder()
-                            .username(request.getUsername())
-                            .password_hash(passwordEncoder.encode(request.getPassword()))
-                            .email(request.getEmail())
-                            .role(Role.USER)
-                            .full_name(request.getFullName())
-                            .updated_at(LocalDateTime.now())
-                            .created_at(LocalDateTime.now())
-                            .authType(AuthenticationType.LOCAL)
-                            .verified(false)
-                            .is_active(false)
-                            .build());
-
-            String verifyToken = jwtService.generatePayloadToken(user, Map.of("email", user.getEmail()), 1, ChronoUnit.HOURS);
-            String verifyLink = String.format("%s/api/auth/register/verify?token=%s", backendUrl, verifyToken);
-
-            mailService.sendLinkEmail(
-                    MailType.REGISTRATION,
-                    user.getEmail(),
-                    verifyLink
-            );
+            // User row and verification mail commit together: no mail for a failed insert, no lost mail on restart
+            transactionTemplate.executeWithoutResult(status -> {
+                User user = userRepository.save(
+                        User.builder()
+                                .username(request.getUsername())
+                                .password_hash(passwordHash)
+                                .email(request.getEmail())
+                                .role(Role.USER)
+                                .full_name(request.getFullName())
+                                .updated_at(LocalDateTime.now())
+                                .created_at(LocalDateTime.now())
+                                .authType(AuthenticationType.LOCAL)
+                                .verified(false)
+                                .is_active(false)
+                                .build());
+
+                String verifyToken = jwtService.generatePayloadToken(user, Map.of("email", user.getEmail()), 1, ChronoUnit.HOURS);
+                String verifyLink = String.format("%s/api/auth/register/verify?token=%s", backendUrl, verifyToken);
+
+                mailService.queueLinkEmail(
+                        MailType.REGISTRATION,
+                        user.getEmail(),
+                        verifyLink
+                );
+            });
         }
-        catch (DataAccessException | MessagingException e)
+        catch (DataAccessException e)
         {
-            if (e instanceof DataAccessException) {
-                throw new ResourceManagementException("save()", "New registered user", "Failed to save user to the database");
-            }
-            else {
-                throw new MailSendException("Failed to sent registration email");
-            }
+            throw new ResourceManagementException("save()", "New registered user", "Failed to save user to the database");
         }
 
         return Map.of("message", "Email sent");
     }
 
     public Map<String, String> verifyRegistration(String token) {
-        if (!validatePayloadToken(token)) {
+        VerifiedToken verifiedToken = verifyPayloadToken(token);
+        if (verifiedToken == null) {
             throw new JwtManagementException(TokenType.PAYLOAD, "Validate token", "Invalid or expired verification token");
         }
 
-        Integer userId = Integer.parseInt(jwtService.extractClaim(TokenType.PAYLOAD, token, Claims::getSubject));
+        Integer userId = verifiedToken.userId();
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "Id", userId.toString()));
 
+        LocalDateTime now = LocalDateTime.now();
+        userRepository.activate(userId, now);
         user.setVerified(true);
         user.setIs_active(true);
-        user.setUpdated_at(LocalDateTime.now());
-        userRepository.save(user);
+        user.setUpdated_at(now);
+        principalCacheService.invalidate(userId);
 
         String accessToken = jwtService.generateAuthenticationToken(user);
         String refreshToken = jwtService.generateRefreshToken(user);
@@ -228,22 +249,19 @@ public class AuthServiceImpl implements AuthService {
     public LoginResponse refreshToken(String refreshTokenValue) {
         log.debug("Refresh token attempt");
 
-        RefreshToken refreshToken = refreshTokenService.validateRefreshToken(refreshTokenValue);
-        User user = refreshToken.getUser();
-
-        refreshTokenService.updateLastUsed(refreshTokenValue);
+        StoredRefreshToken newRefreshToken = refreshTokenService.rotateRefreshToken(refreshTokenValue);
+        User user = userRepository.findById(newRefreshToken.userId())
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", newRefreshToken.userId().toString()));
 
         String newAccessToken = jwtService.generateAuthenticationToken(user);
 
-        RefreshToken newRefreshToken = refreshTokenService.createRefreshToken(user);
-
         UserResponse userResponse = buildUserResponse(user);
 
         log.info("Token refreshed successfully for user: {}", user.getId());
 
         return LoginResponse.builder()
                 .accessToken(newAccessToken)
-                .refreshToken(newRefreshToken.getToken())
+                .refreshToken(newRefreshToken.token())
                 .expiresIn(15 * 60) // 15 minutes in seconds
                 .user(userResponse)
                 .build();
@@ -262,54 +280,57 @@ public class AuthServiceImpl implements AuthService {
 
         String verifyToken = jwtService.generatePayloadToken(user, claims, 15, ChronoUnit.MINUTES);
 
-        try {
-            String verifyLink = String.format("%s?token=%s", resetPasswordFrontendURL, verifyToken);
+        String verifyLink = String.format("%s?token=%s", resetPasswordFrontendURL, verifyToken);
 
-            mailService.sendLinkEmail(
-                    MailType.CHANGE_PASSWORD,
-                    user.getEmail(),
-                    verifyLink
-            );
-        } catch (MessagingException e) {
-            throw new MailSendException("Failed to sent registration email");
-        }
+        mailService.queueLinkEmail(
+                MailType.CHANGE_PASSWORD,
+                user.getEmail(),
+                verifyLink
+        );
 
         return Map.of("message", "Email sent");
     }
 
     public Map<String, String> resetPassword(ResetPasswordRequest request) {
-        String token = request.getToken();
+        VerifiedToken verifiedToken = verifyPayloadToken(request.getToken());
 
-        if (!validatePayloadToken(token)) {
+        if (verifiedToken == null) {
             throw new ArgumentValidationException("Token is not valid");
         }
 
-        Claims claims = jwtService.extractClaim(TokenType.PAYLOAD, token, Function.identity());
-
-        if (!claims.get("purpose").equals("reset-password")) {
-            System.out.println("hehe");
+        if (!"reset-password".equals(verifiedToken.claim("purpose", String.class))) {
             throw new ArgumentValidationException("Token is not valid");
         }
 
-        User user = userRepository.findById(Integer.parseInt(jwtService.extractClaim(TokenType.PAYLOAD, token, Claims::getSubject)))
-                .orElseThrow(() -> new ArgumentValidationException("Failed to reset password"));
-
-        user.setPassword_hash(passwordEncoder.encode(request.getNewPassword()));
-        user.setUpdated_at(LocalDateTime.now());
+        Integer userId = verifiedToken.userId();
+        String passwordHash = passwordEncoder.encode(request.getNewPassword());
 
+        int updated;
         try {
-            userRepository.save(user);
+            updated = userRepository.updatePassword(userId, passwordHash, LocalDateTime.now());
         } catch (DataAccessException e) {
-            throw new ResourceManagementException("save()", String.format("User with id: %d", user.getId()), "Failed to update user");
+            throw new ResourceManagementException("save()", String.format("User with id: %d", userId), "Failed to update user");
+        }
+        if (updated == 0) {
+            throw new ArgumentValidationException("Failed to reset password");
         }
+        principalCacheService.invalidate(userId);
 
         return Map.of("message", "Success");
     }
 
     @Override
-    public void logout(String refreshTokenValue) {
+    public void logout(String refreshTokenValue, String accessToken) {
         log.info("User logout attempt");
 
+        if (accessToken != null) {
+            try {
+                tokenRevocationService.revoke(jwtService.verify(TokenType.ACCESS, accessToken));
+            } catch (ExpiredJwtException | JwtManagementException e) {
+                log.debug("Access token sent on logout is already unusable");
+            }
+        }
+
         try {
             refreshTokenService.deleteRefreshToken(refreshTokenValue);
             log.info("User logged out successfully");
@@ -330,10 +351,11 @@ public class AuthServiceImpl implements AuthService {
                 .build();
     }
 
-    public Boolean validatePayloadToken(String token) {
-        return (jwtService.validateToken(token)
-                && !(token == null)
-                && !jwtService.isTokenExpired(TokenType.PAYLOAD, token)
-                && "payload".equals(jwtService.extractHeader(TokenType.PAYLOAD, token).get("typ")));
+    private VerifiedToken verifyPayloadToken(String token) {
+        try {
+            return jwtService.verify(TokenType.PAYLOAD, token);
+        } catch (ExpiredJwtException | JwtManagementException e) {
+            return null;
+        }
     }
 }
@@ -0,0 +1,234 @@
+package com.grd.gradingbe.service.impl;
+
+import com.grd.gradingbe.dto.enums.CountMode;
+import com.grd.gradingbe.dto.request.BatchRequest;
+import com.grd.gradingbe.dto.response.ApiResponse;
+import com.grd.gradingbe.dto.response.BatchResponse;
+import com.grd.gradingbe.dto.response.ErrorResponse;
+import com.grd.gradingbe.dto.response.PageResponse;
+import com.grd.gradingbe.dto.response.UniversityResponse;
+import com.grd.gradingbe.exception.ArgumentValidationException;
+import com.grd.gradingbe.exception.ResourceAlreadyExistException;
+import com.grd.gradingbe.exception.ResourceManagementException;
+import com.grd.gradingbe.exception.ResourceNotFoundException;
+import com.grd.gradingbe.service.BatchService;
+import com.grd.gradingbe.service.MajorService;
+import com.grd.gradingbe.service.UniversityService;
+import com.grd.gradingbe.service.UserService;
+import com.grd.gradingbe.utilities.CatalogIncludes;
+import com.grd.gradingbe.utilities.FieldSet;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.StringUtils;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Executes batched reads by calling the services behind a fixed set of GET endpoints directly.
+ * The batch itself went through the security chain once; sub-requests never re-enter it, which is
+ * why only endpoints open to every authenticated user are routable here.
+ */
+@Service
+@Slf4j
+public class BatchServiceImpl implements BatchService, DisposableBean {
+
+    private final MeterRegistry meterRegistry;
+    private final Duration timeout;
+    private final ThreadPoolExecutor workers;
+    private final Executor executor;
+    private final List<Route> routes;
+
+    public BatchServiceImpl(UniversityService universityService,
+                            MajorService majorService,
+                            UserService userService,
+                            MeterRegistry meterRegistry,
+                            @Value("${env.batch.threads:8}") int threads,
+                            @Value("${env.batch.timeout:10s}") Duration timeout) {
+        this.meterRegistry = meterRegistry;
+        this.timeout = timeout;
+        // Direct handoff: an item runs on an idle worker or, when all are busy, on the request thread itself.
+        // A queue would park items behind other callers' batches until they ran into the timeout.
+        this.workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new SynchronousQueue<>(), new CustomizableThreadFactory("batch-"), new ThreadPoolExecutor.CallerRunsPolicy());
+        // Sub-requests run as the caller of the batch
+        this.executor = new DelegatingSecurityContextExecutor(workers);
+
+        // Same bodies and defaults as the controllers behind these paths
+        this.routes = List.of(
+                new Route("/api/users/me", call -> userService.getUserData(call.userId())),
+                new Route("/api/universities", call -> {
+                    boolean includeMajors = CatalogIncludes.majors(call.param("include", null));
+                    String fields = call.param("fields", null);
+                    if (includeMajors && StringUtils.hasText(fields)) {
+                        throw new ArgumentValidationException("include cannot be combined with fields");
+                    }
+                    FieldSet fieldSet = FieldSet.parse(fields, FieldSet.UNIVERSITY_FIELDS);
+                    PageResponse<?> page;
+                    if (fieldSet != null) {
+                        page = universityService.getUniversityFields(fieldSet, call.intParam("page", 0), call.intParam("size", 10),
+                                call.param("sortBy", "id"), call.param("sortDir", "asc"), call.param("search", null),
+                                call.param("cursor", null), CountMode.fromValue(call.param("count", "estimate")));
+                    } else {
+                        PageResponse<UniversityResponse> universities = universityService.getAllUniversities(call.intParam("page", 0), call.intParam("size", 10),
+                                call.param("sortBy", "id"), call.param("sortDir", "asc"), call.param("search", null),
+                                call.param("cursor", null), CountMode.fromValue(call.param("count", "estimate")));
+                        page = includeMajors ? universityService.withMajors(universities) : universities;
+                    }
+                    return ApiResponse.success("Successfully retrieved all universities", page);
+                }),
+                new Route("/api/universities/{id}", call -> {
+                    UniversityResponse university = universityService.getUniversityById(call.longVariable("id"));
+                    return ApiResponse.success("Successfully retrieved university",
+                            CatalogIncludes.majors(call.param("include", null)) ? universityService.withMajors(university) : university);
+                }),
+                new Route("/api/universities/{id}/majors", call -> ApiResponse.success(
+                        "Successfully retrieved majors of university", universityService.getUniversityMajors(call.longVariable("id")))),
+                new Route("/api/majors", call -> {
+                    FieldSet fieldSet = FieldSet.parse(call.param("fields", null), FieldSet.MAJOR_FIELDS);
+                    PageResponse<?> page = fieldSet != null
+                            ? majorService.getMajorFields(fieldSet, call.intParam("page", 0), call.intParam("size", 10),
+                                    call.param("sortBy", "id"), call.param("sortDir", "asc"), call.param("search", null),
+                                    call.param("cursor", null), CountMode.fromValue(call.param("count", "estimate")))
+                            : majorService.getAllMajors(call.intParam("page", 0), call.intParam("size", 10),
+                                    call.param("sortBy", "id"), call.param("sortDir", "asc"), call.param("search", null),
+                                    call.param("cursor", null), CountMode.fromValue(call.param("count", "estimate")));
+                    return ApiResponse.success("Successfully retrieved all majors", page);
+                }),
+                new Route("/api/majors/{id}", call -> ApiResponse.success(
+                        "Successfully retrieved major", majorService.getMajorById(call.longVariable("id"))))
+        );
+    }
+
+    @Override
+    public void destroy() {
+        workers.shutdown();
+    }
+
+    @Override
+    public BatchResponse execute(BatchRequest request, Integer userId) {
+        long started = System.nanoTime();
+
+        // Catalog reads are independent of each other, so every item is started before any is awaited
+        List<CompletableFuture<BatchResponse.Result>> futures = request.getRequests().stream()
+                .map(item -> CompletableFuture.supplyAsync(() -> dispatch(item, userId), executor)
+                        .completeOnTimeout(error(item, HttpStatus.GATEWAY_TIMEOUT, "Request timed out", timeout.toMillis()),
+                                timeout.toMillis(), TimeUnit.MILLISECONDS))
+                .toList();
+        List<BatchResponse.Result> results = futures.stream().map(CompletableFuture::join).toList();
+
+        long elapsed = System.nanoTime() - started;
+        Timer.builder("batch.requests")
+                .description("Batch requests, end to end on the server")
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        meterRegistry.summary("batch.items").record(results.size());
+        return new BatchResponse(results, TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+
+    private BatchResponse.Result dispatch(BatchRequest.Item item, Integer userId) {
+        long started = System.nanoTime();
+        String route = "unmatched";
+        BatchResponse.Result result;
+        try {
+            UriComponents uri = UriComponentsBuilder.fromUriString(item.getPath()).build();
+            PathContainer path = PathContainer.parsePath(uri.getPath() != null ? uri.getPath() : "");
+            result = null;
+            for (Route candidate : routes) {
+                PathPattern.PathMatchInfo match = candidate.pattern().matchAndExtract(path);
+                if (match == null) {
+                    continue;
+                }
+                route = candidate.pattern().getPatternString();
+                if (item.getMethod() != null && !HttpMethod.GET.matches(item.getMethod().toUpperCase())) {
+                    result = error(item, HttpStatus.METHOD_NOT_ALLOWED, "Only GET requests can be batched", elapsedMillis(started));
+                } else {
+                    Object body = candidate.handler().apply(new Call(match.getUriVariables(), uri.getQueryParams(), userId));
+                    result = new BatchResponse.Result(item.getId(), HttpStatus.OK.value(), body, elapsedMillis(started));
+                }
+                break;
+            }
+            if (result == null) {
+                result = error(item, HttpStatus.NOT_FOUND, "Path cannot be batched: " + uri.getPath(), elapsedMillis(started));
+            }
+        } catch (ResourceNotFoundException e) {
+            result = error(item, HttpStatus.NOT_FOUND, e.getMessage(), elapsedMillis(started));
+        } catch (ArgumentValidationException | ResourceAlreadyExistException | ResourceManagementException | IllegalArgumentException e) {
+            // IllegalArgumentException covers malformed paths and numbers
+            result = error(item, HttpStatus.BAD_REQUEST, e.getMessage(), elapsedMillis(started));
+        } catch (RuntimeException e) {
+            log.error("Batched request {} failed", item.getPath(), e);
+            result = error(item, HttpStatus.INTERNAL_SERVER_ERROR,
+                    e.getMessage() != null ? e.getMessage() : "Unknown internal server error.", elapsedMillis(started));
+        }
+
+        meterRegistry.timer("batch.item", "route", route, "status", String.valueOf(result.status()))
+                .record(result.durationMs(), TimeUnit.MILLISECONDS);
+        return result;
+    }
+
+    private static BatchResponse.Result error(BatchRequest.Item item, HttpStatus status, String message, long durationMs) {
+        // Same error body the endpoint itself would have answered with
+        ErrorResponse body = new ErrorResponse("uri=" + item.getPath(), status, message, LocalDateTime.now());
+        return new BatchResponse.Result(item.getId(), status.value(), body, durationMs);
+    }
+
+    private static long elapsedMillis(long startedNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
+    }
+
+    private record Route(PathPattern pattern, Function<Call, Object> handler) {
+
+        Route(String pattern, Function<Call, Object> handler) {
+            this(PathPatternParser.defaultInstance.parse(pattern), handler);
+        }
+    }
+
+    /**
+     * Path variables and query parameters of one sub-request; parameter values are still percent-encoded.
+     */
+    private record Call(Map<String, String> variables, MultiValueMap<String, String> params, Integer userId) {
+
+        long longVariable(String name) {
+            return Long.parseLong(variables.get(name));
+        }
+
+        String param(String name, String defaultValue) {
+            if (!params.containsKey(name)) {
+                return defaultValue;
+            }
+            // A bare "?cursor" means an empty value, as with @RequestParam
+            String value = params.getFirst(name);
+            return value != null ? UriUtils.decode(value.replace('+', ' '), StandardCharsets.UTF_8) : "";
+        }
+
+        int intParam(String name, int defaultValue) {
+            String value = param(name, null);
+            return StringUtils.hasText(value) ? Integer.parseInt(value.trim()) : defaultValue;
+        }
+    }
+}
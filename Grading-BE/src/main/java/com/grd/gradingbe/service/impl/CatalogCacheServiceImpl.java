@@ -0,0 +1,336 @@
+package com.grd.gradingbe.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grd.gradingbe.service.CatalogCacheService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Redis read-through cache of catalog responses, stored as JSON.
+ * List pages live under a per-entity generation number; a write bumps the generation so every
+ * cached page of that entity becomes unreachable at once and simply ages out. Single entities have
+ * a per-id generation instead, read before each load and compared when the result is written back,
+ * so a load that read the row before an update committed cannot re-cache the old value.
+ * Misses are coalesced per key, and hot entries are reloaded in the background shortly before they
+ * expire (probabilistic early expiration, "XFetch") rather than all at once when they do.
+ */
+@Service
+@Slf4j
+public class CatalogCacheServiceImpl implements CatalogCacheService, DisposableBean {
+
+    private static final String KEY_PREFIX = "catalog:";
+    // Outlives any load by far, so a generation cannot expire between the read before a load and the write after it
+    private static final Duration GENERATION_TTL = Duration.ofDays(1);
+
+    // SET only while the generation (KEYS[2]) still has the value read before the load; '' stands for none
+    private static final RedisScript<Long> STORE_IF_CURRENT_SCRIPT = RedisScript.of("""
+            local current = redis.call('GET', KEYS[2])
+            if (current or '') ~= ARGV[3] then
+                return 0
+            end
+            redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Duration entityTtl;
+    private final Duration listTtl;
+
+    private final double earlyRefreshBeta;
+
+    private final Timer readTimer;
+    private final Timer writeTimer;
+    private final Counter coalesced;
+    private final Counter earlyRefreshes;
+
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor refreshExecutor;
+
+    public CatalogCacheServiceImpl(StringRedisTemplate redisTemplate,
+                                   ObjectMapper objectMapper,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${env.catalog.cache.entity-ttl:10m}") Duration entityTtl,
+                                   @Value("${env.catalog.cache.list-ttl:2m}") Duration listTtl,
+                                   @Value("${env.catalog.cache.early-refresh-beta:1.0}") double earlyRefreshBeta,
+                                   @Value("${env.catalog.cache.refresh-threads:2}") int refreshThreads) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.entityTtl = entityTtl;
+        this.listTtl = listTtl;
+        this.earlyRefreshBeta = earlyRefreshBeta;
+        this.refreshExecutor = new ThreadPoolExecutor(refreshThreads, refreshThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(100), new CustomizableThreadFactory("catalog-refresh-"), new ThreadPoolExecutor.AbortPolicy());
+        this.readTimer = Timer.builder("catalog.cache.latency")
+                .description("Redis round trips of the catalog cache")
+                .tag("operation", "read")
+                .register(meterRegistry);
+        this.writeTimer = Timer.builder("catalog.cache.latency")
+                .description("Redis round trips of the catalog cache")
+                .tag("operation", "write")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("catalog.cache.coalesced")
+                .description("Catalog cache misses that waited on a load already in flight instead of querying")
+                .register(meterRegistry);
+        this.earlyRefreshes = Counter.builder("catalog.cache.early.refresh")
+                .description("Catalog cache entries reloaded before expiry")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void destroy() {
+        refreshExecutor.shutdown();
+    }
+
+    @Override
+    public <T> T getEntity(String entity, Long id, TypeReference<T> type, Supplier<T> loader) {
+        return readThrough(entity, "entity", entityKey(entity, id), entityGenerationKey(entity, id), entityTtl, type, loader);
+    }
+
+    @Override
+    public <T> T getList(String entity, String params, TypeReference<T> type, Supplier<T> loader) {
+        String generation;
+        try {
+            generation = readTimer.record(() -> redisTemplate.opsForValue().get(generationKey(entity)));
+        } catch (DataAccessException e) {
+            log.debug("Redis unavailable while reading {} list generation: {}", entity, e.getMessage());
+            outcome(entity, "list", "error").increment();
+            return singleFlight(KEY_PREFIX + entity + ":list:?:" + params, loader);
+        }
+
+        String key = KEY_PREFIX + entity + ":list:" + (generation != null ? generation : "0") + ":" + params;
+        // The generation is already part of the key
+        return readThrough(entity, "list", key, null, listTtl, type, loader);
+    }
+
+    @Override
+    public void evict(String entity, Long id) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doEvict(entity, id);
+                }
+            });
+            return;
+        }
+        doEvict(entity, id);
+    }
+
+    private <T> T readThrough(String entity, String scope, String key, String generationKey, Duration ttl,
+                              TypeReference<T> type, Supplier<T> loader) {
+        String cached;
+        try {
+            cached = readTimer.record(() -> redisTemplate.opsForValue().get(key));
+        } catch (DataAccessException e) {
+            // Covers the 1s command timeout: serve from the database and skip the write-back
+            log.debug("Redis unavailable while reading {}: {}", key, e.getMessage());
+            outcome(entity, scope, "error").increment();
+            return singleFlight(key, loader);
+        }
+
+        Entry entry = cached != null ? Entry.parse(cached) : null;
+        if (entry != null) {
+            try {
+                T value = objectMapper.readValue(entry.json(), type);
+                outcome(entity, scope, "hit").increment();
+                if (entry.shouldRefreshEarly(System.currentTimeMillis(), earlyRefreshBeta)) {
+                    refreshInBackground(entity, key, generationKey, ttl, loader);
+                }
+                return value;
+            } catch (JsonProcessingException e) {
+                // Left behind by an older DTO shape; reload and overwrite it
+                log.debug("Discarding unreadable cache entry {}: {}", key, e.getOriginalMessage());
+            }
+        }
+
+        outcome(entity, scope, "miss").increment();
+        return singleFlight(key, () -> loadAndStore(key, generationKey, ttl, loader));
+    }
+
+    /**
+     * Runs the loader once per key on this node; concurrent callers for the same key wait on the
+     * same future instead of issuing the same query.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T singleFlight(String key, Supplier<T> loader) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            coalesced.increment();
+            try {
+                return (T) existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        try {
+            T value = loader.get();
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            // Waiters see the same exception, e.g. ResourceNotFoundException
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private <T> void refreshInBackground(String entity, String key, String generationKey, Duration ttl, Supplier<T> loader) {
+        if (inFlight.containsKey(key)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    singleFlight(key, () -> loadAndStore(key, generationKey, ttl, loader));
+                    earlyRefreshes.increment();
+                } catch (RuntimeException e) {
+                    log.debug("Early refresh of {} failed: {}", key, e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Refresh queue full; the entry still expires normally
+            log.debug("Skipped early refresh of {} for {}: queue full", key, entity);
+        }
+    }
+
+    private <T> T loadAndStore(String key, String generationKey, Duration ttl, Supplier<T> loader) {
+        String generation = null;
+        if (generationKey != null) {
+            try {
+                // Before the load: an eviction landing during it moves the generation and the write-back is skipped
+                generation = readTimer.record(() -> redisTemplate.opsForValue().get(generationKey));
+            } catch (DataAccessException e) {
+                log.debug("Redis unavailable while reading {}: {}", generationKey, e.getMessage());
+                return loader.get();
+            }
+        }
+
+        long started = System.currentTimeMillis();
+        T value = loader.get();
+        long now = System.currentTimeMillis();
+        try {
+            String json = objectMapper.writeValueAsString(value);
+            String stored = new Entry(now - started, now + ttl.toMillis(), json).format();
+            if (generationKey == null) {
+                writeTimer.record(() -> redisTemplate.opsForValue().set(key, stored, ttl));
+            } else {
+                String expected = generation != null ? generation : "";
+                Long written = writeTimer.record(() -> redisTemplate.execute(STORE_IF_CURRENT_SCRIPT,
+                        List.of(key, generationKey), stored, String.valueOf(ttl.toMillis()), expected));
+                if (written == null || written == 0) {
+                    log.debug("Skipped caching {}: evicted while loading", key);
+                }
+            }
+        } catch (JsonProcessingException | DataAccessException e) {
+            log.debug("Failed to cache {}: {}", key, e.getMessage());
+        }
+        return value;
+    }
+
+    private void doEvict(String entity, Long id) {
+        try {
+            writeTimer.record(() -> {
+                if (id != null) {
+                    // Bump first: a load that read the old generation can no longer write back
+                    String generationKey = entityGenerationKey(entity, id);
+                    redisTemplate.opsForValue().increment(generationKey);
+                    redisTemplate.expire(generationKey, GENERATION_TTL);
+                    redisTemplate.delete(entityKey(entity, id));
+                }
+                redisTemplate.opsForValue().increment(generationKey(entity));
+            });
+        } catch (DataAccessException e) {
+            // Entries expire on their own; the TTL bounds how long this write stays invisible
+            log.warn("Failed to evict cached {} {}: {}", entity, id, e.getMessage());
+        }
+    }
+
+    private Counter outcome(String entity, String scope, String result) {
+        return Counter.builder("catalog.cache.requests")
+                .description("Catalog cache lookups by outcome")
+                .tag("entity", entity)
+                .tag("scope", scope)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static String entityKey(String entity, Long id) {
+        return KEY_PREFIX + entity + ":" + id;
+    }
+
+    private static String entityGenerationKey(String entity, Long id) {
+        return KEY_PREFIX + entity + ":" + id + ":generation";
+    }
+
+    private static String generationKey(String entity) {
+        return KEY_PREFIX + entity + ":list:generation";
+    }
+
+    /**
+     * Stored value plus what XFetch needs: how long the load took and when the entry expires.
+     * Encoded as {@code deltaMillis:expiresAtMillis:json}.
+     */
+    private record Entry(long deltaMillis, long expiresAtMillis, String json) {
+
+        static Entry parse(String raw) {
+            int first = raw.indexOf(':');
+            int second = first < 0 ? -1 : raw.indexOf(':', first + 1);
+            if (second < 0) {
+                return null;
+            }
+            try {
+                return new Entry(Long.parseLong(raw.substring(0, first)),
+                        Long.parseLong(raw.substring(first + 1, second)),
+                        raw.substring(second + 1));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        String format() {
+            return deltaMillis + ":" + expiresAtMillis + ":" + json;
+        }
+
+        /**
+         * XFetch: refresh when now - delta * beta * ln(U) >= expiry, U uniform in (0, 1]. Expensive
+         * loads and entries close to expiry are refreshed earlier, and callers spread out instead of
+         * all missing at the same instant.
+         */
+        boolean shouldRefreshEarly(long now, double beta) {
+            double random = 1.0 - ThreadLocalRandom.current().nextDouble();
+            return now - deltaMillis * beta * Math.log(random) >= expiresAtMillis;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.grd.gradingbe.service.impl;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.grd.gradingbe.repository.MajorRepository;
+import com.grd.gradingbe.repository.UniversityRepository;
+import com.grd.gradingbe.service.CatalogCountService;
+import com.grd.gradingbe.utilities.SearchUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.OptionalLong;
+
+@Service
+@Slf4j
+public class CatalogCountServiceImpl implements CatalogCountService {
+
+    private final UniversityRepository universityRepository;
+    private final MajorRepository majorRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    // Stale values are served while Caffeine reloads them on its executor, so callers never wait on a refresh
+    private final LoadingCache<CountKey, Long> counts;
+
+    public CatalogCountServiceImpl(UniversityRepository universityRepository,
+                                   MajorRepository majorRepository,
+                                   JdbcTemplate jdbcTemplate,
+                                   @Value("${env.catalog.count.refresh-after:1m}") Duration refreshAfter,
+                                   @Value("${env.catalog.count.expire-after:15m}") Duration expireAfter,
+                                   @Value("${env.catalog.count.max-size:10000}") long maxSize) {
+        this.universityRepository = universityRepository;
+        this.majorRepository = majorRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.counts = Caffeine.newBuilder()
+                .refreshAfterWrite(refreshAfter)
+                .expireAfterWrite(expireAfter)
+                .maximumSize(maxSize)
+                .build(this::load);
+    }
+
+    @Override
+    public OptionalLong estimate(String table, String search) {
+        // Keyed on exactly what countSearch receives: folding here would let spellings the LIKE search treats
+        // differently (a%b, a_b, a b) share one count
+        CountKey key = new CountKey(table, search == null ? "" : search.trim());
+        if (key.query().isEmpty()) {
+            // Planner statistics: one catalog lookup, cheap enough to wait for
+            return OptionalLong.of(counts.get(key));
+        }
+
+        Long count = counts.getIfPresent(key);
+        if (count == null) {
+            // A new search string would otherwise cost the request a full count; Caffeine runs one load
+            // per key on its executor and the next page of the same search gets the total
+            counts.refresh(key);
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(count);
+    }
+
+    private long load(CountKey key) {
+        if (key.query().isEmpty()) {
+            Long reltuples = jdbcTemplate.queryForObject(
+                    "SELECT reltuples::bigint FROM pg_class WHERE oid = to_regclass(?)", Long.class, key.table());
+            // -1 until the table has been vacuumed/analyzed once
+            if (reltuples != null && reltuples >= 0) {
+                return reltuples;
+            }
+            return switch (key.table()) {
+                case UNIVERSITIES -> universityRepository.count();
+                case MAJORS -> majorRepository.count();
+                default -> throw new IllegalArgumentException("Unknown catalog table " + key.table());
+            };
+        }
+
+        String pattern = SearchUtils.escapeLike(key.query());
+        return switch (key.table()) {
+            case UNIVERSITIES -> universityRepository.countSearch(key.query(), pattern);
+            case MAJORS -> majorRepository.countSearch(key.query(), pattern);
+            default -> throw new IllegalArgumentException("Unknown catalog table " + key.table());
+        };
+    }
+
+    private record CountKey(String table, String query) {
+    }
+}
@@ -0,0 +1,148 @@
+package com.grd.gradingbe.service.impl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grd.gradingbe.dto.enums.DataFormat;
+import com.grd.gradingbe.repository.MajorRepository;
+import com.grd.gradingbe.repository.UniversityRepository;
+import com.grd.gradingbe.service.CatalogCacheService;
+import com.grd.gradingbe.service.CatalogExportService;
+import com.grd.gradingbe.utilities.CatalogMapper;
+import com.grd.gradingbe.utilities.CsvWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Exports rows straight from a server-side cursor to the response: each entity is mapped, written
+ * and detached before the next one is fetched, so neither the persistence context nor the response
+ * buffer grows with the table.
+ */
+@Service
+@Slf4j
+public class CatalogExportServiceImpl implements CatalogExportService {
+
+    private static final TypeReference<Map<String, Object>> ROW_TYPE = new TypeReference<>() {};
+
+    // Same names and order as the JSON fields of UniversityResponse/MajorResponse
+    private static final List<String> UNIVERSITY_COLUMNS = List.of(
+            "id", "name", "code", "address", "website", "typeUniversity", "phoneNumber", "email",
+            "description", "logoUrl", "createdAt", "createdBy", "updatedAt", "updatedBy", "version");
+    private static final List<String> MAJOR_COLUMNS = List.of(
+            "id", "name", "code", "description", "durationYears", "universityId",
+            "createdAt", "createdBy", "updatedAt", "updatedBy", "version");
+
+    private final UniversityRepository universityRepository;
+    private final MajorRepository majorRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int flushEvery;
+
+    public CatalogExportServiceImpl(UniversityRepository universityRepository,
+                                    MajorRepository majorRepository,
+                                    EntityManager entityManager,
+                                    ObjectMapper objectMapper,
+                                    MeterRegistry meterRegistry,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${env.catalog.export.flush-every:1000}") int flushEvery) {
+        this.universityRepository = universityRepository;
+        this.majorRepository = majorRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.flushEvery = flushEvery;
+    }
+
+    @Override
+    public long exportUniversities(OutputStream out, DataFormat format) throws IOException {
+        return export(CatalogCacheService.UNIVERSITY, out, format, UNIVERSITY_COLUMNS,
+                universityRepository::streamAllBy, CatalogMapper::toResponse);
+    }
+
+    @Override
+    public long exportMajors(OutputStream out, DataFormat format) throws IOException {
+        return export(CatalogCacheService.MAJOR, out, format, MAJOR_COLUMNS,
+                majorRepository::streamAllBy, CatalogMapper::toResponse);
+    }
+
+    private <E> long export(String entity,
+                            OutputStream out,
+                            DataFormat format,
+                            List<String> columns,
+                            Supplier<Stream<E>> rows,
+                            Function<E, ?> mapper) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        long written;
+        try {
+            written = readOnlyTransaction.execute(status -> {
+                try (Stream<E> stream = rows.get()) {
+                    return write(writer, format, columns, stream.iterator(), mapper);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        } catch (UncheckedIOException e) {
+            // Usually the client went away mid-download
+            log.warn("Export of {} aborted: {}", entity, e.getCause().getMessage());
+            throw e.getCause();
+        } finally {
+            sample.stop(meterRegistry.timer("catalog.export", "entity", entity, "format", format.name().toLowerCase()));
+        }
+
+        meterRegistry.counter("catalog.export.rows", "entity", entity).increment(written);
+        return written;
+    }
+
+    private <E> long write(Writer writer, DataFormat format, List<String> columns, Iterator<E> rows, Function<E, ?> mapper) throws IOException {
+        if (format == DataFormat.CSV) {
+            CsvWriter.writeRecord(writer, columns);
+        }
+
+        long count = 0;
+        while (rows.hasNext()) {
+            E row = rows.next();
+            Object response = mapper.apply(row);
+            // Nothing refers to the entity once it is mapped; keep the persistence context empty
+            entityManager.detach(row);
+
+            if (format == DataFormat.CSV) {
+                Map<String, Object> values = objectMapper.convertValue(response, ROW_TYPE);
+                CsvWriter.writeRecord(writer, columns.stream().map(values::get).toList());
+            } else {
+                writer.write(objectMapper.writeValueAsString(response));
+                writer.write('\n');
+            }
+
+            if (++count % flushEvery == 0) {
+                // Push what we have to the client instead of letting the container buffer grow
+                writer.flush();
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,430 @@
+package com.grd.gradingbe.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grd.gradingbe.dto.enums.DataFormat;
+import com.grd.gradingbe.dto.enums.TypeUniversity;
+import com.grd.gradingbe.dto.request.MajorImportRow;
+import com.grd.gradingbe.dto.request.UniversityRequest;
+import com.grd.gradingbe.dto.response.ImportResponse;
+import com.grd.gradingbe.exception.ResourceManagementException;
+import com.grd.gradingbe.model.Major;
+import com.grd.gradingbe.model.University;
+import com.grd.gradingbe.service.CatalogCacheService;
+import com.grd.gradingbe.service.CatalogImportService;
+import com.grd.gradingbe.service.CatalogSnapshotService;
+import com.grd.gradingbe.service.SuggestionService;
+import com.grd.gradingbe.utilities.CsvReader;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk import that never holds more than one batch of rows: the body is parsed as it arrives,
+ * rows are validated one by one and written with multi-row {@code INSERT ... ON CONFLICT (code)}
+ * statements (the driver rewrites JDBC batches, see {@code reWriteBatchedInserts}). Ids are taken
+ * from the entity sequences in blocks, exactly like Hibernate's pooled optimizer, so imported rows
+ * and rows saved through JPA never collide.
+ */
+@Service
+@Slf4j
+public class CatalogImportServiceImpl implements CatalogImportService {
+
+    private static final String UPSERT_UNIVERSITY = """
+            INSERT INTO universities (id, name, code, address, phone_number, email, website, logo_url, description,
+                                      type_university, created_at, created_by, updated_at, updated_by, version)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)
+            ON CONFLICT (code) DO UPDATE SET
+                name = EXCLUDED.name, address = EXCLUDED.address, phone_number = EXCLUDED.phone_number,
+                email = EXCLUDED.email, website = EXCLUDED.website, logo_url = EXCLUDED.logo_url,
+                description = EXCLUDED.description, type_university = EXCLUDED.type_university,
+                updated_at = EXCLUDED.updated_at, updated_by = EXCLUDED.updated_by,
+                version = coalesce(universities.version, 0) + 1
+            """;
+
+    private static final String UPSERT_MAJOR = """
+            INSERT INTO majors (id, name, code, description, duration_years, university_id,
+                                created_at, created_by, updated_at, updated_by, version)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)
+            ON CONFLICT (code) DO UPDATE SET
+                name = EXCLUDED.name, description = EXCLUDED.description, duration_years = EXCLUDED.duration_years,
+                university_id = EXCLUDED.university_id, updated_at = EXCLUDED.updated_at, updated_by = EXCLUDED.updated_by,
+                version = coalesce(majors.version, 0) + 1
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final AuditorAware<String> auditorAware;
+    private final CatalogCacheService catalogCacheService;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final SuggestionService suggestionService;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final int maxErrors;
+
+    public CatalogImportServiceImpl(JdbcTemplate jdbcTemplate,
+                                    TransactionTemplate transactionTemplate,
+                                    ObjectMapper objectMapper,
+                                    Validator validator,
+                                    AuditorAware<String> auditorAware,
+                                    CatalogCacheService catalogCacheService,
+                                    CatalogSnapshotService catalogSnapshotService,
+                                    SuggestionService suggestionService,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${env.catalog.import.batch-size:1000}") int batchSize,
+                                    @Value("${env.catalog.import.max-errors:1000}") int maxErrors) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.auditorAware = auditorAware;
+        this.catalogCacheService = catalogCacheService;
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.suggestionService = suggestionService;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.maxErrors = maxErrors;
+    }
+
+    @Override
+    public ImportResponse importUniversities(InputStream body, DataFormat format) {
+        IdBlock ids = new IdBlock(University.ID_SEQUENCE, University.ID_ALLOCATION_SIZE);
+        Sink<UniversityRequest> sink = new Sink<>(CatalogCacheService.UNIVERSITY, UPSERT_UNIVERSITY) {
+            @Override
+            String code(UniversityRequest row) {
+                return row.getCode();
+            }
+
+            @Override
+            Object[] bind(UniversityRequest row, Timestamp now, String auditor) {
+                TypeUniversity type = TypeUniversity.fromValue(row.getTypeUniversity());
+                return new Object[]{
+                        ids.next(), row.getName(), row.getCode(), row.getAddress(), row.getPhoneNumber(),
+                        row.getEmail(), row.getWebsite(), row.getLogoUrl(), row.getDescription(),
+                        type.name(), now, auditor, now, auditor
+                };
+            }
+        };
+        return run(body, format, UniversityRequest.class, sink);
+    }
+
+    @Override
+    public ImportResponse importMajors(InputStream body, DataFormat format) {
+        IdBlock ids = new IdBlock(Major.ID_SEQUENCE, Major.ID_ALLOCATION_SIZE);
+        // University code -> id, and ids known to exist, for the whole run; unknown ones are remembered too
+        Map<String, Long> universityIds = new HashMap<>();
+        Set<String> unknownCodes = new HashSet<>();
+        Set<Long> knownIds = new HashSet<>();
+        Set<Long> unknownIds = new HashSet<>();
+
+        Sink<MajorImportRow> sink = new Sink<>(CatalogCacheService.MAJOR, UPSERT_MAJOR) {
+            @Override
+            String code(MajorImportRow row) {
+                return row.getCode();
+            }
+
+            @Override
+            void resolve(List<Pending<MajorImportRow>> rows) {
+                String[] missingCodes = rows.stream()
+                        .map(pending -> pending.row().getUniversityCode())
+                        .filter(code -> StringUtils.hasText(code) && !universityIds.containsKey(code) && !unknownCodes.contains(code))
+                        .distinct()
+                        .toArray(String[]::new);
+                if (missingCodes.length > 0) {
+                    jdbcTemplate.query("SELECT id, code FROM universities WHERE code = ANY(?)",
+                            rs -> {
+                                universityIds.put(rs.getString("code"), rs.getLong("id"));
+                            },
+                            (Object) missingCodes);
+                    for (String code : missingCodes) {
+                        if (!universityIds.containsKey(code)) {
+                            unknownCodes.add(code);
+                        }
+                    }
+                }
+
+                // Rows from an export reference the university by id
+                Long[] missingIds = rows.stream()
+                        .filter(pending -> !StringUtils.hasText(pending.row().getUniversityCode()))
+                        .map(pending -> pending.row().getUniversityId())
+                        .filter(id -> id != null && !knownIds.contains(id) && !unknownIds.contains(id))
+                        .distinct()
+                        .toArray(Long[]::new);
+                if (missingIds.length > 0) {
+                    jdbcTemplate.query("SELECT id FROM universities WHERE id = ANY(?)",
+                            rs -> {
+                                knownIds.add(rs.getLong("id"));
+                            },
+                            (Object) missingIds);
+                    for (Long id : missingIds) {
+                        if (!knownIds.contains(id)) {
+                            unknownIds.add(id);
+                        }
+                    }
+                }
+            }
+
+            @Override
+            Object[] bind(MajorImportRow row, Timestamp now, String auditor) {
+                Long universityId;
+                if (StringUtils.hasText(row.getUniversityCode())) {
+                    // The code wins over an id, so a hand-edited export can move a major by code
+                    universityId = universityIds.get(row.getUniversityCode());
+                    if (universityId == null) {
+                        throw new IllegalArgumentException("Unknown university code: " + row.getUniversityCode());
+                    }
+                } else if (row.getUniversityId() != null) {
+                    universityId = row.getUniversityId();
+                    if (!knownIds.contains(universityId)) {
+                        throw new IllegalArgumentException("Unknown university id: " + universityId);
+                    }
+                } else {
+                    throw new IllegalArgumentException("universityCode or universityId is required");
+                }
+                return new Object[]{
+                        ids.next(), row.getName(), row.getCode(), row.getDescription(), row.getDurationYears(),
+                        universityId, now, auditor, now, auditor
+                };
+            }
+        };
+        return run(body, format, MajorImportRow.class, sink);
+    }
+
+    private <R> ImportResponse run(InputStream body, DataFormat format, Class<R> rowType, Sink<R> sink) {
+        long started = System.currentTimeMillis();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            if (format == DataFormat.CSV) {
+                readCsv(reader, rowType, sink);
+            } else {
+                readNdjson(reader, rowType, sink);
+            }
+            sink.flush();
+        } catch (IOException e) {
+            // Batches already flushed stay committed; the report would be incomplete, so fail the request
+            throw new ResourceManagementException("import", sink.entity, e.getMessage());
+        } finally {
+            if (sink.imported > 0) {
+                catalogCacheService.evict(sink.entity, null);
+                catalogSnapshotService.invalidate();
+                suggestionService.rebuild();
+            }
+        }
+
+        long durationMs = System.currentTimeMillis() - started;
+        meterRegistry.timer("catalog.import", "entity", sink.entity).record(Duration.ofMillis(durationMs));
+        meterRegistry.counter("catalog.import.rows", "entity", sink.entity, "outcome", "imported").increment(sink.imported);
+        meterRegistry.counter("catalog.import.rows", "entity", sink.entity, "outcome", "failed").increment(sink.failed);
+        log.info("Imported {} {} rows in {} ms ({} processed, {} failed)",
+                sink.imported, sink.entity, durationMs, sink.processed, sink.failed);
+
+        return ImportResponse.builder()
+                .processed(sink.processed)
+                .imported(sink.imported)
+                .failed(sink.failed)
+                .durationMs(durationMs)
+                .errors(sink.errors)
+                .errorsTruncated(sink.failed > sink.errors.size())
+                .build();
+    }
+
+    private <R> void readCsv(BufferedReader reader, Class<R> rowType, Sink<R> sink) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            return;
+        }
+        header = header.stream().map(String::trim).toList();
+
+        List<String> fields;
+        while ((fields = csv.next()) != null) {
+            long line = csv.recordLine();
+            sink.processed++;
+            if (fields.size() != header.size()) {
+                sink.reject(line, null, "Expected " + header.size() + " columns, found " + fields.size());
+                continue;
+            }
+
+            Map<String, String> values = new LinkedHashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                String value = fields.get(i).trim();
+                values.put(header.get(i), value.isEmpty() ? null : value);
+            }
+            try {
+                sink.accept(line, objectMapper.convertValue(values, rowType));
+            } catch (IllegalArgumentException e) {
+                sink.reject(line, values.get("code"), e.getMessage());
+            }
+        }
+    }
+
+    private <R> void readNdjson(BufferedReader reader, Class<R> rowType, Sink<R> sink) throws IOException {
+        String text;
+        long line = 0;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            sink.processed++;
+            try {
+                sink.accept(line, objectMapper.readValue(text, rowType));
+            } catch (JsonProcessingException e) {
+                sink.reject(line, null, e.getOriginalMessage());
+            }
+        }
+    }
+
+    private record Pending<R>(long line, R row) {
+    }
+
+    /**
+     * Collects validated rows into batches and writes them. A batch is flushed early when a code
+     * repeats, since one statement cannot upsert the same key twice.
+     */
+    private abstract class Sink<R> {
+        final String entity;
+        final String sql;
+        final List<Pending<R>> pending = new ArrayList<>();
+        final Set<String> pendingCodes = new HashSet<>();
+        final List<ImportResponse.RowError> errors = new ArrayList<>();
+        long processed;
+        long imported;
+        long failed;
+
+        Sink(String entity, String sql) {
+            this.entity = entity;
+            this.sql = sql;
+        }
+
+        abstract String code(R row);
+
+        /**
+         * Turns a row into statement parameters; throws IllegalArgumentException to reject it.
+         */
+        abstract Object[] bind(R row, Timestamp now, String auditor);
+
+        /**
+         * Looks up whatever the batch references, once for all of its rows.
+         */
+        void resolve(List<Pending<R>> rows) {
+        }
+
+        void accept(long line, R row) {
+            Set<ConstraintViolation<R>> violations = validator.validate(row);
+            if (!violations.isEmpty()) {
+                reject(line, code(row), violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+
+            if (!pendingCodes.add(code(row))) {
+                flush();
+                pendingCodes.add(code(row));
+            }
+            pending.add(new Pending<>(line, row));
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void reject(long line, String code, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(new ImportResponse.RowError(line, code, message));
+            }
+        }
+
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            resolve(pending);
+
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            String auditor = auditorAware.getCurrentAuditor().orElse(null);
+            List<Object[]> batch = new ArrayList<>(pending.size());
+            List<Pending<R>> bound = new ArrayList<>(pending.size());
+            for (Pending<R> row : pending) {
+                try {
+                    batch.add(bind(row.row(), now, auditor));
+                    bound.add(row);
+                } catch (IllegalArgumentException e) {
+                    reject(row.line(), code(row.row()), e.getMessage());
+                }
+            }
+            pending.clear();
+            pendingCodes.clear();
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, batch));
+                imported += batch.size();
+            } catch (DataAccessException e) {
+                // Retry row by row so the one bad row is reported and the rest still land
+                log.debug("Import batch of {} {} rows failed, retrying row by row: {}", batch.size(), entity, e.getMessage());
+                for (int i = 0; i < batch.size(); i++) {
+                    Object[] params = batch.get(i);
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(sql, params));
+                        imported++;
+                    } catch (DataAccessException rowFailure) {
+                        reject(bound.get(i).line(), code(bound.get(i).row()), rowFailure.getMostSpecificCause().getMessage());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Hands out ids from {@code nextval} blocks the way Hibernate's pooled optimizer does:
+     * a sequence value {@code v} reserves {@code (v - allocationSize, v]}.
+     */
+    private final class IdBlock {
+        private final String sequence;
+        private final int allocationSize;
+        private long next;
+        private long last = -1;
+
+        IdBlock(String sequence, int allocationSize) {
+            this.sequence = sequence;
+            this.allocationSize = allocationSize;
+        }
+
+        long next() {
+            if (next > last) {
+                Long high = jdbcTemplate.queryForObject("SELECT nextval(?)", Long.class, sequence);
+                last = high;
+                next = Math.max(1, high - allocationSize + 1);
+            }
+            return next++;
+        }
+    }
+}
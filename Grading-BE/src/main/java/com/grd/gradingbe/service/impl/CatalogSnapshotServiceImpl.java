@@ -0,0 +1,240 @@
+package com.grd.gradingbe.service.impl;
+
+import com.grd.gradingbe.model.Major;
+import com.grd.gradingbe.model.University;
+import com.grd.gradingbe.repository.MajorRepository;
+import com.grd.gradingbe.repository.UniversityRepository;
+import com.grd.gradingbe.service.CatalogSnapshotService;
+import com.grd.gradingbe.utilities.CatalogSnapshot;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * Holds the whole catalog in memory for the read endpoints. A single-row write is patched into a
+ * copy of the snapshot on the writing node before the write returns (so it reads its own writes);
+ * a full reload is then queued and {@code catalog:invalidate} published once it is done. Other nodes
+ * reload when they hear it, and on a fixed interval in case a message was missed. Reloads run one at
+ * a time on a dedicated thread, so neither the writer nor the Redis listener waits for them.
+ */
+@Service
+@Slf4j
+public class CatalogSnapshotServiceImpl implements CatalogSnapshotService, MessageListener, DisposableBean {
+
+    private static final String INVALIDATION_CHANNEL = "catalog:invalidate";
+
+    private final UniversityRepository universityRepository;
+    private final MajorRepository majorRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final Timer rebuildTimer;
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("catalog-snapshot-"));
+    // Lets this node ignore its own invalidations, which it has already applied
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final AtomicReference<CatalogSnapshot> snapshot = new AtomicReference<>(CatalogSnapshot.EMPTY);
+    // Rebuild requests vs. the request number the current snapshot covers, so queued rebuilds coalesce
+    private final AtomicLong requested = new AtomicLong();
+    // Only touched on the rebuilder thread
+    private long covered;
+    // Local writes applied to the snapshot that no reload has picked up yet, in request order
+    private final List<Patch> pendingPatches = new ArrayList<>();
+    private final Object patchLock = new Object();
+
+    public CatalogSnapshotServiceImpl(UniversityRepository universityRepository,
+                                      MajorRepository majorRepository,
+                                      StringRedisTemplate redisTemplate,
+                                      RedisMessageListenerContainer listenerContainer,
+                                      MeterRegistry meterRegistry) {
+        this.universityRepository = universityRepository;
+        this.majorRepository = majorRepository;
+        this.redisTemplate = redisTemplate;
+        this.rebuildTimer = Timer.builder("catalog.snapshot.rebuild")
+                .description("Time to reload the in-memory catalog snapshot")
+                .register(meterRegistry);
+        Gauge.builder("catalog.snapshot.size", snapshot, current -> current.get().universityCount())
+                .tag("entity", "university")
+                .register(meterRegistry);
+        Gauge.builder("catalog.snapshot.size", snapshot, current -> current.get().majorCount())
+                .tag("entity", "major")
+                .register(meterRegistry);
+
+        listenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    @Override
+    public void destroy() {
+        rebuilder.shutdown();
+    }
+
+    @Override
+    public CatalogSnapshot current() {
+        return snapshot.get();
+    }
+
+    @Override
+    public void invalidate() {
+        afterCommit(() -> {
+            Future<?> reload = requestRebuild(true);
+            if (reload == null) {
+                return;
+            }
+            // Bulk writes are not patched in, so wait for the reload for the writer to read its own writes
+            try {
+                reload.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                log.error("Catalog snapshot reload failed: {}", e.getCause().getMessage());
+            }
+        });
+    }
+
+    @Override
+    public void universitySaved(University university) {
+        afterCommit(() -> patch(current -> current.withUniversity(university)));
+    }
+
+    @Override
+    public void universityDeleted(Long id) {
+        afterCommit(() -> patch(current -> current.withoutUniversity(id)));
+    }
+
+    @Override
+    public void majorSaved(Major major) {
+        afterCommit(() -> patch(current -> current.withMajor(major)));
+    }
+
+    @Override
+    public void majorDeleted(Long id) {
+        afterCommit(() -> patch(current -> current.withoutMajor(id)));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        if (!nodeId.equals(new String(message.getBody(), StandardCharsets.UTF_8))) {
+            requestRebuild(false);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialLoad() {
+        requestRebuild(false);
+    }
+
+    @Scheduled(fixedDelayString = "${env.catalog.snapshot.rebuild-interval-ms:300000}",
+            initialDelayString = "${env.catalog.snapshot.rebuild-interval-ms:300000}")
+    public void scheduledRebuild() {
+        requestRebuild(false);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+            return;
+        }
+        action.run();
+    }
+
+    // Applies one committed write to the live snapshot right away; the full reload follows in the background
+    private void patch(UnaryOperator<CatalogSnapshot> change) {
+        long request;
+        synchronized (patchLock) {
+            request = requested.incrementAndGet();
+            pendingPatches.add(new Patch(request, change));
+            snapshot.set(change.apply(snapshot.get()));
+        }
+        submit(request, true);
+    }
+
+    private Future<?> requestRebuild(boolean publish) {
+        return submit(requested.incrementAndGet(), publish);
+    }
+
+    private Future<?> submit(long request, boolean publish) {
+        try {
+            return rebuilder.submit(() -> {
+                rebuild(request);
+                if (publish) {
+                    publish();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            log.debug("Catalog snapshot rebuild not queued: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void publish() {
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, nodeId);
+        } catch (DataAccessException e) {
+            // Other nodes catch up on their next scheduled rebuild
+            log.warn("Failed to publish catalog invalidation: {}", e.getMessage());
+        }
+    }
+
+    private void rebuild(long request) {
+        if (covered >= request) {
+            // A rebuild that started after this request already picked up its changes
+            return;
+        }
+        long target = requested.get();
+        try {
+            CatalogSnapshot next = rebuildTimer.record(() -> {
+                List<University> universities = universityRepository.findAll();
+                List<Major> majors = majorRepository.findAll();
+                return CatalogSnapshot.build(universities, majors);
+            });
+            synchronized (patchLock) {
+                // Writes committed after this reload started are not in it; keep them applied until one covers them
+                pendingPatches.removeIf(patch -> patch.request() <= target);
+                for (Patch patch : pendingPatches) {
+                    next = patch.change().apply(next);
+                }
+                snapshot.set(next);
+            }
+            covered = target;
+            log.debug("Catalog snapshot rebuilt: {} universities, {} majors", next.universityCount(), next.majorCount());
+        } catch (DataAccessException e) {
+            // Keep serving the previous snapshot
+            log.error("Failed to rebuild catalog snapshot: {}", e.getMessage());
+        }
+    }
+
+    private record Patch(long request, UnaryOperator<CatalogSnapshot> change) {
+    }
+}
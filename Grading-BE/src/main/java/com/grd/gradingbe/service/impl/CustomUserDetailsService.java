@@ -1,14 +1,16 @@
 package com.grd.gradingbe.service.impl;
 
 import com.grd.gradingbe.exception.ResourceNotFoundException;
+import com.grd.gradingbe.model.User;
 import com.grd.gradingbe.repository.UserRepository;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService
 {
     private final UserRepository userRepository;
 
@@ -23,5 +25,14 @@ public class CustomUserDetailsService implements UserDetailsService
         return userRepository.findByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "Username", username));
     }
+
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword)
+    {
+        User user = (User) userDetails;
+        userRepository.updatePasswordHash(user.getId(), newPassword);
+        user.setPassword_hash(newPassword);
+        return user;
+    }
 }
 
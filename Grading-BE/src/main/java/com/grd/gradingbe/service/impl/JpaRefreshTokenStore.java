@@ -0,0 +1,126 @@
+package com.grd.gradingbe.service.impl;
+
+import com.grd.gradingbe.dto.token.StoredRefreshToken;
+import com.grd.gradingbe.model.RefreshToken;
+import com.grd.gradingbe.repository.RefreshTokenRepository;
+import com.grd.gradingbe.repository.UserRepository;
+import com.grd.gradingbe.service.RefreshTokenStore;
+import com.grd.gradingbe.utilities.TokenHashUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Service
+@ConditionalOnProperty(name = "env.jwt.refresh-token-store", havingValue = "jpa", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class JpaRefreshTokenStore implements RefreshTokenStore {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${env.jwt.max-tokens-per-user:5}")
+    private long maxTokensPerUser;
+
+    @Value("${env.jwt.cleanup.batch-size:5000}")
+    private int cleanupBatchSize;
+
+    @Value("${env.jwt.cleanup.batch-pause:100ms}")
+    private Duration cleanupBatchPause;
+
+    @Override
+    public void save(String token, Integer userId, LocalDateTime expiryDate) {
+        long activeTokensCount = refreshTokenRepository.countActiveTokensByUser(userId, LocalDateTime.now());
+
+        if (activeTokensCount >= maxTokensPerUser) {
+            log.info("User {} has {} active tokens, cleaning up old ones", userId, activeTokensCount);
+            refreshTokenRepository.revokeAllUserTokens(userId);
+        }
+
+        insert(token, userId, expiryDate);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<StoredRefreshToken> findActive(String token) {
+        return refreshTokenRepository.findByTokenHashAndRevokedFalse(TokenHashUtils.sha256Hex(token))
+                .map(refreshToken -> new StoredRefreshToken(
+                        token,
+                        refreshToken.getUser().getId(),
+                        refreshToken.getExpiryDate()
+                ));
+    }
+
+    @Override
+    public Optional<Integer> rotate(String token, String newToken, LocalDateTime newExpiryDate) {
+        Optional<Integer> userId = refreshTokenRepository.revokeForRotation(TokenHashUtils.sha256Hex(token), LocalDateTime.now());
+        userId.ifPresent(id -> insert(newToken, id, newExpiryDate));
+        return userId;
+    }
+
+    @Override
+    public boolean delete(String token) {
+        return refreshTokenRepository.findByTokenHash(TokenHashUtils.sha256Hex(token))
+                .map(refreshToken -> {
+                    refreshTokenRepository.delete(refreshToken);
+                    return true;
+                })
+                .orElse(false);
+    }
+
+    @Override
+    public void deleteAllForUser(Integer userId) {
+        refreshTokenRepository.deleteByUserId(userId);
+    }
+
+    @Override
+    public void revokeAllForUser(Integer userId) {
+        refreshTokenRepository.revokeAllUserTokens(userId);
+    }
+
+    /**
+     * Deletes in bounded batches, each in its own short transaction, pausing between batches
+     * so the sweep never holds long row locks or floods WAL.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long deleteExpired(LocalDateTime now) {
+        long total = 0;
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> refreshTokenRepository.deleteExpiredTokenBatch(now, cleanupBatchSize));
+            total += deleted;
+
+            if (deleted == cleanupBatchSize && !cleanupBatchPause.isZero()) {
+                try {
+                    Thread.sleep(cleanupBatchPause.toMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    log.warn("Refresh token cleanup interrupted after {} rows", total);
+                    break;
+                }
+            }
+        } while (deleted == cleanupBatchSize);
+
+        return total;
+    }
+
+    private void insert(String token, Integer userId, LocalDateTime expiryDate) {
+        refreshTokenRepository.save(RefreshToken.builder()
+                .user(userRepository.getReferenceById(userId))
+                .tokenHash(TokenHashUtils.sha256Hex(token))
+                .expiryDate(expiryDate)
+                .build());
+    }
+}
@@ -2,11 +2,14 @@ package com.grd.gradingbe.service.impl;
 
 import com.grd.gradingbe.dto.enums.TokenType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grd.gradingbe.dto.token.VerifiedToken;
 import com.grd.gradingbe.exception.JwtManagementException;
 import com.grd.gradingbe.model.User;
 import com.grd.gradingbe.service.JwtService;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
@@ -18,14 +21,20 @@ import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Base64;
 import java.util.Date;
+import java.util.Locale;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Service
 public class JwtServiceImpl implements JwtService
 {
+    private static final ObjectMapper HEADER_MAPPER = new ObjectMapper();
+
     private final SecretKey key;
     private final String serverIss;
+    // Parsers are immutable and thread-safe, so build the verifying one once
+    private final JwtParser parser;
 
     private final long authTokenExpiryMinutes = 15; // 15 minutes for access token
     private final long refreshTokenExpiryDays = 7; // 7 days for refresh token
@@ -36,6 +45,9 @@ public class JwtServiceImpl implements JwtService
     {
         this.key = Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
         this.serverIss = serverIss;
+        this.parser = Jwts.parser()
+                .verifyWith(key)
+                .build();
     }
 
     public String generateAuthenticationToken(User user) {
@@ -46,6 +58,7 @@ public class JwtServiceImpl implements JwtService
                 .header().add("typ", "access")
                 .and()
                 .claim("role", user.getRole().toString())
+                .id(UUID.randomUUID().toString())
                 .issuer(serverIss)
                 .subject(user.getId().toString())
                 .issuedAt(Date.from(now))
@@ -86,14 +99,47 @@ public class JwtServiceImpl implements JwtService
                 .compact();
     }
 
+    public VerifiedToken verify(TokenType type, String token)
+    {
+        if (token == null || token.isBlank())
+        {
+            throw new JwtManagementException(type, "Verify", "Token is missing");
+        }
+
+        Jws<Claims> jws;
+        try
+        {
+            jws = parser.parseSignedClaims(token);
+        }
+        catch (ExpiredJwtException e)
+        {
+            throw e;
+        }
+        catch (Exception e)
+        {
+            throw new JwtManagementException(type, "Verify", "Invalid signature or format");
+        }
+
+        if (!type.name().toLowerCase(Locale.ROOT).equals(jws.getHeader().getType()))
+        {
+            throw new JwtManagementException(type, "Verify", "Unexpected token type");
+        }
+
+        Claims claims = jws.getPayload();
+        return new VerifiedToken(
+                type,
+                claims.getSubject(),
+                claims,
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null
+        );
+    }
+
     public boolean validateToken(String token)
     {
         try
         {
-            Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token);
+            parser.parseSignedClaims(token);
             return true;
         }
         catch (Exception e)
@@ -124,10 +170,7 @@ public class JwtServiceImpl implements JwtService
     {
         try
         {
-            return Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token)
+            return parser.parseSignedClaims(token)
                     .getPayload();
         }
         catch (Exception e)
@@ -144,9 +187,7 @@ public class JwtServiceImpl implements JwtService
             String tokenHeader = parts[0];
             String headerDecoded = new String(Base64.getUrlDecoder().decode(tokenHeader));
 
-            ObjectMapper mapper = new ObjectMapper();
-
-            return mapper.readValue(headerDecoded, Map.class);
+            return HEADER_MAPPER.readValue(headerDecoded, Map.class);
         }
         catch (Exception e)
         {
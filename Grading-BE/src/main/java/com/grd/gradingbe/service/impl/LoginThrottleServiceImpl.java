@@ -0,0 +1,242 @@
+package com.grd.gradingbe.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.grd.gradingbe.exception.TooManyRequestsException;
+import com.grd.gradingbe.service.LoginThrottleService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Failed-login throttling by username and by client address, checked before any user lookup or
+ * password hashing. Failures are kept in Redis sorted sets (a sliding window scored by time);
+ * crossing the limit sets a lock key whose TTL doubles with every consecutive lockout.
+ * When Redis is unreachable the same rules are applied per node from an in-process cache.
+ */
+@Service
+@Slf4j
+public class LoginThrottleServiceImpl implements LoginThrottleService
+{
+    private static final String FAILURES_KEY = "auth:login:failures:";
+    private static final String LOCK_KEY = "auth:login:lock:";
+    private static final String STRIKES_KEY = "auth:login:strikes:";
+    private static final String USER_SCOPE = "user";
+    private static final String IP_SCOPE = "ip";
+
+    // KEYS: user lock, ip lock | returns the remaining lockout in ms of each key, 0 when not locked
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> CHECK_SCRIPT = RedisScript.of("""
+            local remaining = {}
+            for i = 1, #KEYS do
+                remaining[i] = math.max(redis.call('PTTL', KEYS[i]), 0)
+            end
+            return remaining
+            """, List.class);
+
+    // KEYS: failures set, lock, strikes | ARGV: now ms, window ms, limit, member, base lockout ms, max lockout ms, strikes ttl ms
+    private static final RedisScript<Long> FAILURE_SCRIPT = RedisScript.of("""
+            redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', tonumber(ARGV[1]) - tonumber(ARGV[2]))
+            redis.call('ZADD', KEYS[1], ARGV[1], ARGV[4])
+            redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            if redis.call('ZCARD', KEYS[1]) < tonumber(ARGV[3]) then
+                return 0
+            end
+            local strikes = redis.call('INCR', KEYS[3])
+            redis.call('PEXPIRE', KEYS[3], ARGV[7])
+            local lockout = math.min(tonumber(ARGV[5]) * 2 ^ (strikes - 1), tonumber(ARGV[6]))
+            redis.call('SET', KEYS[2], strikes, 'PX', math.floor(lockout))
+            redis.call('DEL', KEYS[1])
+            return math.floor(lockout)
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration window;
+    private final int maxFailuresPerUser;
+    private final int maxFailuresPerIp;
+    private final Duration baseLockout;
+    private final Duration maxLockout;
+    private final Duration strikesTtl;
+
+    private final Cache<String, LocalWindow> localWindows;
+
+    private final Counter userThrottled;
+    private final Counter ipThrottled;
+    private final Counter fallbacks;
+
+    public LoginThrottleServiceImpl(StringRedisTemplate redisTemplate,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${env.auth.login-throttle.window:15m}") Duration window,
+                                    @Value("${env.auth.login-throttle.max-failures-per-user:5}") int maxFailuresPerUser,
+                                    @Value("${env.auth.login-throttle.max-failures-per-ip:50}") int maxFailuresPerIp,
+                                    @Value("${env.auth.login-throttle.base-lockout:30s}") Duration baseLockout,
+                                    @Value("${env.auth.login-throttle.max-lockout:1h}") Duration maxLockout,
+                                    @Value("${env.auth.login-throttle.strikes-ttl:24h}") Duration strikesTtl,
+                                    @Value("${env.auth.login-throttle.local-max-size:100000}") long localMaxSize)
+    {
+        this.redisTemplate = redisTemplate;
+        this.window = window;
+        this.maxFailuresPerUser = maxFailuresPerUser;
+        this.maxFailuresPerIp = maxFailuresPerIp;
+        this.baseLockout = baseLockout;
+        this.maxLockout = maxLockout;
+        this.strikesTtl = strikesTtl;
+        this.localWindows = Caffeine.newBuilder()
+                .expireAfterAccess(strikesTtl)
+                .maximumSize(localMaxSize)
+                .build();
+
+        this.userThrottled = throttledCounter(meterRegistry, USER_SCOPE);
+        this.ipThrottled = throttledCounter(meterRegistry, IP_SCOPE);
+        this.fallbacks = Counter.builder("auth.login.throttle.fallback")
+                .description("Throttle decisions taken from the local fallback because Redis was unavailable")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void checkAllowed(String username, String clientIp)
+    {
+        String userSubject = subject(USER_SCOPE, username);
+        String ipSubject = subject(IP_SCOPE, clientIp);
+
+        long userRemaining;
+        long ipRemaining;
+        try
+        {
+            List<?> remaining = redisTemplate.execute(CHECK_SCRIPT, List.of(LOCK_KEY + userSubject, LOCK_KEY + ipSubject));
+            userRemaining = remaining != null ? ((Number) remaining.get(0)).longValue() : 0L;
+            ipRemaining = remaining != null ? ((Number) remaining.get(1)).longValue() : 0L;
+        }
+        catch (DataAccessException e)
+        {
+            fallbacks.increment();
+            log.debug("Redis unavailable while checking login throttle: {}", e.getMessage());
+            userRemaining = local(userSubject).remainingLockout(System.currentTimeMillis());
+            ipRemaining = local(ipSubject).remainingLockout(System.currentTimeMillis());
+        }
+
+        if (userRemaining > 0 || ipRemaining > 0)
+        {
+            (userRemaining >= ipRemaining ? userThrottled : ipThrottled).increment();
+            throw new TooManyRequestsException(
+                    "Too many failed login attempts, please try again later",
+                    Math.max(1, (Math.max(userRemaining, ipRemaining) + 999) / 1000)
+            );
+        }
+    }
+
+    @Override
+    public void recordFailure(String username, String clientIp)
+    {
+        long now = System.currentTimeMillis();
+        recordFailure(subject(USER_SCOPE, username), maxFailuresPerUser, now);
+        recordFailure(subject(IP_SCOPE, clientIp), maxFailuresPerIp, now);
+    }
+
+    @Override
+    public void recordSuccess(String username, String clientIp)
+    {
+        // Only the username is cleared: a credential-stuffing address that hits one valid account keeps its count
+        String userSubject = subject(USER_SCOPE, username);
+        localWindows.invalidate(userSubject);
+        try
+        {
+            redisTemplate.delete(List.of(FAILURES_KEY + userSubject, STRIKES_KEY + userSubject));
+        }
+        catch (DataAccessException e)
+        {
+            log.debug("Redis unavailable while clearing login failures: {}", e.getMessage());
+        }
+    }
+
+    private void recordFailure(String subject, int limit, long now)
+    {
+        try
+        {
+            Long lockout = redisTemplate.execute(
+                    FAILURE_SCRIPT,
+                    List.of(FAILURES_KEY + subject, LOCK_KEY + subject, STRIKES_KEY + subject),
+                    String.valueOf(now),
+                    String.valueOf(window.toMillis()),
+                    String.valueOf(limit),
+                    now + ":" + UUID.randomUUID(),
+                    String.valueOf(baseLockout.toMillis()),
+                    String.valueOf(maxLockout.toMillis()),
+                    String.valueOf(strikesTtl.toMillis())
+            );
+            if (lockout != null && lockout > 0)
+            {
+                log.warn("Login locked for {} for {} ms", subject, lockout);
+            }
+        }
+        catch (DataAccessException e)
+        {
+            fallbacks.increment();
+            log.debug("Redis unavailable while recording login failure: {}", e.getMessage());
+            local(subject).recordFailure(now, window.toMillis(), limit, baseLockout.toMillis(), maxLockout.toMillis());
+        }
+    }
+
+    private LocalWindow local(String subject)
+    {
+        return localWindows.get(subject, key -> new LocalWindow());
+    }
+
+    private static String subject(String scope, String value)
+    {
+        return scope + ":" + (value == null ? "" : value.trim().toLowerCase(Locale.ROOT));
+    }
+
+    private static Counter throttledCounter(MeterRegistry meterRegistry, String scope)
+    {
+        return Counter.builder("auth.login.throttled")
+                .description("Login attempts rejected before authentication by the throttle")
+                .tag("scope", scope)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Per-node equivalent of the Redis window, used only while Redis is down.
+     */
+    private static final class LocalWindow
+    {
+        private final Deque<Long> failures = new ArrayDeque<>();
+        private int strikes;
+        private long lockedUntil;
+
+        synchronized long remainingLockout(long now)
+        {
+            return Math.max(0, lockedUntil - now);
+        }
+
+        synchronized void recordFailure(long now, long windowMillis, int limit, long baseLockoutMillis, long maxLockoutMillis)
+        {
+            while (!failures.isEmpty() && failures.peekFirst() <= now - windowMillis)
+            {
+                failures.pollFirst();
+            }
+            failures.addLast(now);
+            if (failures.size() < limit)
+            {
+                return;
+            }
+
+            strikes++;
+            long lockout = baseLockoutMillis << Math.min(strikes - 1, 30);
+            lockedUntil = now + Math.min(lockout, maxLockoutMillis);
+            failures.clear();
+        }
+    }
+}
@@ -1,56 +1,248 @@
 package com.grd.gradingbe.service.impl;
 
+import com.grd.gradingbe.dto.enums.MailOutboxStatus;
 import com.grd.gradingbe.dto.enums.MailType;
+import com.grd.gradingbe.model.MailOutbox;
+import com.grd.gradingbe.repository.MailOutboxRepository;
 import com.grd.gradingbe.service.MailService;
+import com.grd.gradingbe.utilities.MailTemplateCache;
+import com.grd.gradingbe.utilities.SmtpTransportPool;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
 import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
+@Slf4j
 public class MailServiceImpl implements MailService {
     private final JavaMailSender mailSender;
-    private final TemplateEngine templateEngine;
+    private final MailTemplateCache templateCache;
+    private final SmtpTransportPool transportPool;
+    private final MailOutboxRepository outboxRepository;
+    private final ThreadPoolTaskExecutor mailWorkerExecutor;
+
+    private final int workers;
+    private final int batchSize;
+    private final Duration lease;
+    private final int maxAttempts;
+    private final Duration baseBackoff;
+    private final Duration maxBackoff;
+    private final Duration sentRetention;
+    private final Duration failedRetention;
+    private final int purgeBatchSize;
 
-    public MailServiceImpl(JavaMailSender mailSender, TemplateEngine templateEngine) {
+    private final AtomicLong pending = new AtomicLong();
+    private final Timer deliveryLatency;
+    private final Timer batchTimer;
+    private final Counter sentCounter;
+    private final Counter retryCounter;
+    private final Counter deadCounter;
+
+    public MailServiceImpl(JavaMailSender mailSender,
+                           MailTemplateCache templateCache,
+                           SmtpTransportPool transportPool,
+                           MailOutboxRepository outboxRepository,
+                           @Qualifier("mailWorkerExecutor") ThreadPoolTaskExecutor mailWorkerExecutor,
+                           MeterRegistry meterRegistry,
+                           @Value("${env.mail.outbox.workers:4}") int workers,
+                           @Value("${env.mail.outbox.batch-size:20}") int batchSize,
+                           @Value("${env.mail.outbox.lease:2m}") Duration lease,
+                           @Value("${env.mail.outbox.max-attempts:8}") int maxAttempts,
+                           @Value("${env.mail.outbox.base-backoff:30s}") Duration baseBackoff,
+                           @Value("${env.mail.outbox.max-backoff:1h}") Duration maxBackoff,
+                           @Value("${env.mail.outbox.sent-retention:1d}") Duration sentRetention,
+                           @Value("${env.mail.outbox.failed-retention:7d}") Duration failedRetention,
+                           @Value("${env.mail.outbox.purge-batch-size:1000}") int purgeBatchSize) {
         this.mailSender = mailSender;
-        this.templateEngine = templateEngine;
+        this.templateCache = templateCache;
+        this.transportPool = transportPool;
+        this.outboxRepository = outboxRepository;
+        this.mailWorkerExecutor = mailWorkerExecutor;
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.lease = lease;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoff = baseBackoff;
+        this.maxBackoff = maxBackoff;
+        this.sentRetention = sentRetention;
+        this.failedRetention = failedRetention;
+        this.purgeBatchSize = purgeBatchSize;
+
+        Gauge.builder("mail.outbox.pending", pending, AtomicLong::get)
+                .description("Outbox entries waiting to be sent, as of the last dispatcher poll")
+                .register(meterRegistry);
+        this.deliveryLatency = Timer.builder("mail.outbox.latency")
+                .description("Time from enqueue to successful hand-off to the SMTP server")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("mail.outbox.batch.send")
+                .description("Time to send one batch over a pooled SMTP connection")
+                .register(meterRegistry);
+        this.sentCounter = outcomeCounter(meterRegistry, "sent");
+        this.retryCounter = outcomeCounter(meterRegistry, "retry");
+        this.deadCounter = outcomeCounter(meterRegistry, "failed");
     }
 
-    @Async
-    public void sendLinkEmail(MailType type, String to, String link) throws MessagingException {
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true);
+    @Override
+    @Transactional
+    public void queueLinkEmail(MailType type, String to, String link) {
+        outboxRepository.save(MailOutbox.builder()
+                .mailType(type)
+                .recipient(to)
+                .link(link)
+                .nextAttemptAt(LocalDateTime.now())
+                .build());
+    }
+
+    @Override
+    public void deliverPending() {
+        LocalDateTime now = LocalDateTime.now();
+        List<MailOutbox> claimed = outboxRepository.claimBatch(now, now.plus(lease), workers * batchSize);
+        pending.set(outboxRepository.countByStatus(MailOutboxStatus.PENDING));
+        if (claimed.isEmpty()) {
+            return;
+        }
 
-            Context context = new Context();
-            context.setVariable("link", link);
+        List<CompletableFuture<Void>> batches = new ArrayList<>();
+        for (int from = 0; from < claimed.size(); from += batchSize) {
+            List<MailOutbox> batch = claimed.subList(from, Math.min(from + batchSize, claimed.size()));
+            batches.add(CompletableFuture.runAsync(() -> sendBatch(batch), mailWorkerExecutor));
+        }
+        // Wait so the next poll never claims more than the pool can take
+        CompletableFuture.allOf(batches.toArray(CompletableFuture[]::new)).join();
+    }
 
-            String htmlContent;
+    private void sendBatch(List<MailOutbox> batch) {
+        List<MailOutbox> sent = new ArrayList<>();
+        Transport transport = null;
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < batch.size(); i++) {
+                MailOutbox mail = batch.get(i);
+                MimeMessage message;
+                try {
+                    message = buildMessage(mail.getMailType(), mail.getRecipient(), mail.getLink());
+                } catch (MessagingException | RuntimeException e) {
+                    scheduleRetry(mail, e);
+                    continue;
+                }
 
-            switch (type) {
-                case MailType.CHANGE_PASSWORD -> {
-                    htmlContent = templateEngine.process("change-password-mail-template", context);
-                    helper.setSubject("Đổi mật khẩu");
+                if (transport == null) {
+                    try {
+                        transport = transportPool.borrow();
+                    } catch (MessagingException e) {
+                        // Server unreachable: no point connecting again for every remaining message
+                        for (MailOutbox remaining : batch.subList(i, batch.size())) {
+                            scheduleRetry(remaining, e);
+                        }
+                        return;
+                    }
                 }
-                case MailType.REGISTRATION -> {
-                    htmlContent = templateEngine.process("registration-mail-template", context);
-                    helper.setSubject("Xác nhận tài khoản");
+
+                try {
+                    transport.sendMessage(message, message.getAllRecipients());
+                    sent.add(mail);
+                } catch (MessagingException e) {
+                    scheduleRetry(mail, e);
+                    if (!transport.isConnected()) {
+                        transportPool.invalidate(transport);
+                        transport = null;
+                    }
                 }
-                default -> throw new IllegalArgumentException("Mail type is not valid");
             }
+        } finally {
+            if (transport != null) {
+                transportPool.release(transport);
+            }
+            batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            markSent(sent);
+        }
+    }
 
-            helper.setTo(to);
-            helper.setText(htmlContent, true);
+    @Override
+    public long purgeFinished() {
+        LocalDateTime now = LocalDateTime.now();
+        long total = 0;
+        int deleted;
+        // Bounded batches, each its own short transaction, so the sweep never holds many row locks at once
+        do {
+            deleted = outboxRepository.deleteFinishedBatch(now.minus(sentRetention), now.minus(failedRetention), purgeBatchSize);
+            total += deleted;
+        } while (deleted == purgeBatchSize);
+        return total;
+    }
+
+    private void markSent(List<MailOutbox> sent) {
+        if (sent.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime sentAt = LocalDateTime.now();
+        for (MailOutbox mail : sent) {
+            deliveryLatency.record(Duration.between(mail.getCreatedAt(), sentAt));
+        }
+        outboxRepository.markSent(sent.stream().map(MailOutbox::getId).toList(), sentAt);
+        sentCounter.increment(sent.size());
+    }
+
+    private void scheduleRetry(MailOutbox mail, Exception error) {
+        String message = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+        if (message.length() > 1000) {
+            message = message.substring(0, 1000);
+        }
 
-            mailSender.send(message);
-        } catch (MessagingException e) {
-            throw new MessagingException("Failed to send email", e);
+        if (mail.getAttempts() >= maxAttempts) {
+            log.error("Giving up on mail {} to {} after {} attempts: {}", mail.getId(), mail.getRecipient(), mail.getAttempts(), message);
+            outboxRepository.markFailed(mail.getId(), message);
+            deadCounter.increment();
+            return;
         }
 
+        long backoffMillis = baseBackoff.toMillis() << Math.min(mail.getAttempts() - 1, 20);
+        Duration backoff = Duration.ofMillis(Math.min(backoffMillis, maxBackoff.toMillis()));
+        log.warn("Mail {} failed (attempt {}), retrying in {}: {}", mail.getId(), mail.getAttempts(), backoff, message);
+        outboxRepository.reschedule(mail.getId(), MailOutboxStatus.PENDING, LocalDateTime.now().plus(backoff), message);
+        retryCounter.increment();
+    }
+
+    private MimeMessage buildMessage(MailType type, String to, String link) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true);
+
+        helper.setSubject(templateCache.subject(type));
+        helper.setTo(to);
+        helper.setText(templateCache.render(type, link), true);
+
+        // What JavaMailSender.send would do before handing the message to a transport
+        message.setSentDate(new Date());
+        message.saveChanges();
+
+        return message;
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("mail.outbox.deliveries")
+                .description("Outbox delivery attempts by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
 }
@@ -1,54 +1,209 @@
 package com.grd.gradingbe.service.impl;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grd.gradingbe.dto.enums.CountMode;
+import com.grd.gradingbe.dto.enums.SuggestionType;
+import com.grd.gradingbe.dto.request.BatchLookupRequest;
 import com.grd.gradingbe.dto.request.MajorRequest;
+import com.grd.gradingbe.dto.response.BatchItem;
 import com.grd.gradingbe.dto.response.MajorResponse;
 import com.grd.gradingbe.dto.response.PageResponse;
+import com.grd.gradingbe.exception.ArgumentValidationException;
 import com.grd.gradingbe.exception.ResourceNotFoundException;
 import com.grd.gradingbe.model.Major;
 import com.grd.gradingbe.model.University;
+import com.grd.gradingbe.repository.CatalogProjectionRepository;
 import com.grd.gradingbe.repository.MajorRepository;
 import com.grd.gradingbe.repository.UniversityRepository;
+import com.grd.gradingbe.service.CatalogCacheService;
+import com.grd.gradingbe.service.CatalogCountService;
+import com.grd.gradingbe.service.CatalogSnapshotService;
 import com.grd.gradingbe.service.MajorService;
+import com.grd.gradingbe.service.SuggestionService;
+import com.grd.gradingbe.utilities.BatchLookup;
+import com.grd.gradingbe.utilities.CatalogMapper;
+import com.grd.gradingbe.utilities.CatalogSnapshot;
+import com.grd.gradingbe.utilities.FieldSet;
+import com.grd.gradingbe.utilities.KeysetCursor;
+import com.grd.gradingbe.utilities.SearchUtils;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class MajorServiceImpl implements MajorService {
 
+    private static final TypeReference<PageResponse<MajorResponse>> PAGE_TYPE = new TypeReference<>() {};
+    private static final TypeReference<MajorResponse> ENTITY_TYPE = new TypeReference<>() {};
+
     private final MajorRepository majorRepository;
     private final UniversityRepository universityRepository;
+    private final MeterRegistry meterRegistry;
+    private final SuggestionService suggestionService;
+    private final CatalogCountService catalogCountService;
+    private final CatalogCacheService catalogCacheService;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final CatalogProjectionRepository catalogProjectionRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public PageResponse<MajorResponse> getAllMajors(int page, int size, String sortBy, String sortDir, String search, String cursor, CountMode countMode) {
+        if (cursor == null && !StringUtils.hasText(search)) {
+            // Plain listing by id or createdAt comes straight from memory, with exact totals whatever the count mode
+            PageResponse<MajorResponse> snapshotPage = catalogSnapshotService.current().majorPage(page, size, sortBy, sortDir);
+            if (snapshotPage != null) {
+                return snapshotPage;
+            }
+        }
+
+        String params = String.join(":", String.valueOf(page), String.valueOf(size), sortBy, sortDir, countMode.name(),
+                String.valueOf(cursor), StringUtils.hasText(search) ? search.trim() : "");
+        return catalogCacheService.getList(CatalogCacheService.MAJOR, params, PAGE_TYPE,
+                () -> loadMajors(page, size, sortBy, sortDir, search, cursor, countMode));
+    }
+
+    private PageResponse<MajorResponse> loadMajors(int page, int size, String sortBy, String sortDir, String search, String cursor, CountMode countMode) {
+        if (cursor != null) {
+            if (StringUtils.hasText(search)) {
+                throw new ArgumentValidationException("Cursor pagination cannot be combined with search");
+            }
+            return getMajorsAfter(cursor, size, sortBy, sortDir);
+        }
+
+        // Only count=exact pays for a COUNT(*); the other modes fetch size + 1 rows through a Slice
+        boolean searching = StringUtils.hasText(search);
+        String query = searching ? search.trim() : null;
+        PageRequest pageRequest = searching ? PageRequest.of(page, size) : PageRequest.of(page, size, sortOf(sortBy, sortDir));
+
+        if (countMode == CountMode.EXACT) {
+            Page<Major> pageMajor = searching
+                    ? meterRegistry.timer("catalog.search", "entity", "major").record(
+                            () -> majorRepository.search(query, SearchUtils.escapeLike(query), pageRequest))
+                    : majorRepository.findAll(pageRequest);
+            return PageResponse.of(pageMajor, mapToMajorResponse(pageMajor.getContent()), pageMajor.getTotalElements());
+        }
+
+        // Relevance order; sortBy/sortDir only apply to plain listing
+        Slice<Major> sliceMajor = searching
+                ? meterRegistry.timer("catalog.search", "entity", "major").record(
+                        () -> majorRepository.searchSlice(query, SearchUtils.escapeLike(query), pageRequest))
+                : majorRepository.findAllBy(pageRequest);
+
+        return PageResponse.of(sliceMajor, mapToMajorResponse(sliceMajor.getContent()), estimatedTotal(countMode, sliceMajor, query));
+    }
+
+    private Long estimatedTotal(CountMode countMode, Slice<?> slice, String query) {
+        if (countMode != CountMode.ESTIMATE) {
+            return null;
+        }
+        long seen = slice.getPageable().getOffset() + slice.getNumberOfElements();
+        // Exact once we reach the end; otherwise never report fewer rows than we know exist
+        // (and only that lower bound while a new search is still being counted)
+        return slice.hasNext()
+                ? Math.max(catalogCountService.estimate(CatalogCountService.MAJORS, query).orElse(0), seen + 1)
+                : seen;
+    }
 
     @Override
-    public PageResponse<MajorResponse> getAllMajors(int page, int size, String sortBy, String sortDir, String search) {
-        Sort sortObj = sortBy.equalsIgnoreCase(Sort.Direction.ASC.name()) ? Sort.by(sortBy).ascending() : Sort.by(sortBy).descending();
-        Pageable pageable = PageRequest.of(page, size, sortObj);
-        Page<Major> pageMajor = majorRepository.findAll(pageable);
-        List<Major> majorContent = pageMajor.getContent();
+    public PageResponse<Map<String, Object>> getMajorFields(FieldSet fields, int page, int size, String sortBy, String sortDir, String search, String cursor, CountMode countMode) {
+        if (cursor != null || StringUtils.hasText(search)) {
+            // Relevance ranking and keyset seeks need the full queries; narrow the finished page instead
+            return getAllMajors(page, size, sortBy, sortDir, search, cursor, countMode)
+                    .map(response -> fields.project(response, objectMapper));
+        }
+
+        PageResponse<MajorResponse> snapshotPage = catalogSnapshotService.current().majorPage(page, size, sortBy, sortDir);
+        if (snapshotPage != null) {
+            return snapshotPage.map(response -> fields.project(response, objectMapper));
+        }
+
+        // Only the selected columns are read, e.g. no description text for a name/logo list
+        Slice<Map<String, Object>> slice = catalogProjectionRepository.findFields(
+                Major.class, fields.paths(), FieldSet.MAJOR_EMPTY_WHEN_NULL, PageRequest.of(page, size, sortOf(sortBy, sortDir)));
+        Long totalElements = countMode == CountMode.EXACT
+                ? majorRepository.count()
+                : estimatedTotal(countMode, slice, null);
+        return PageResponse.of(slice, slice.getContent(), totalElements);
+    }
+
+    private Sort sortOf(String sortBy, String sortDir) {
+        return sortDir.equalsIgnoreCase(Sort.Direction.ASC.name()) ? Sort.by(sortBy).ascending() : Sort.by(sortBy).descending();
+    }
+
+    private PageResponse<MajorResponse> getMajorsAfter(String cursor, int size, String sortBy, String sortDir) {
+        Sort.Direction direction = sortDir.equalsIgnoreCase(Sort.Direction.ASC.name()) ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort sort = KeysetCursor.sort(sortBy, direction);
+        ScrollPosition position = KeysetCursor.decode(cursor, sortBy, direction);
+
+        // Seeks past the cursor row on the (sortBy, id) index; no OFFSET and no COUNT
+        Window<Major> window = majorRepository.findBy(
+                (Specification<Major>) (root, query, builder) -> null,
+                fluentQuery -> fluentQuery.sortBy(sort).limit(size).scroll(position)
+        );
 
         return PageResponse.<MajorResponse>builder()
-                .content(mapToMajorResponse(majorContent))
-                .page(pageMajor.getNumber())
-                .size(pageMajor.getSize())
-                .totalElements((int) pageMajor.getTotalElements())
-                .totalPages(pageMajor.getTotalPages())
-                .last(pageMajor.isLast())
+                .content(mapToMajorResponse(window.getContent()))
+                .size(size)
+                .first(cursor.isBlank())
+                .last(!window.hasNext())
+                .hasNext(window.hasNext())
+                .empty(window.isEmpty())
+                .nextCursor(KeysetCursor.next(window, sortBy, direction))
                 .build();
     }
 
+    @Override
+    public String getMajorsVersion() {
+        // Fingerprint taken when the snapshot was built, so no query per request
+        return catalogSnapshotService.current().majorsVersion();
+    }
+
     @Override
     public MajorResponse getMajorById(Long id) {
-        Major major = majorRepository.findById(id).orElseThrow(
-                () -> new ResourceNotFoundException("Major", "id", id.toString())
-        );
+        MajorResponse response = catalogSnapshotService.current().major(id);
+        if (response == null) {
+            // Snapshot not loaded yet, or the row was created on another node since its last reload
+            response = catalogCacheService.getEntity(CatalogCacheService.MAJOR, id, ENTITY_TYPE, () -> mapToMajorResponse(
+                    majorRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Major", "id", id.toString()))
+            ));
+        }
+        suggestionService.recordView(SuggestionType.MAJOR, id);
+
+        return response;
+    }
+
+    @Override
+    public List<BatchItem<MajorResponse>> getMajorsBatch(BatchLookupRequest request) {
+        boolean byIds = request.getIds() != null && !request.getIds().isEmpty();
+        boolean byCodes = request.getCodes() != null && !request.getCodes().isEmpty();
+        if (byIds == byCodes) {
+            throw new ArgumentValidationException("Exactly one of ids or codes must be given");
+        }
 
-        return mapToMajorResponse(major);
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        if (byIds) {
+            return BatchLookup.resolve(request.getIds(), Function.identity(), snapshot::major,
+                    missing -> majorRepository.findAllById(missing).stream()
+                            .collect(Collectors.toMap(Major::getId, this::mapToMajorResponse)));
+        }
+        return BatchLookup.resolve(request.getCodes(), code -> code.trim().toLowerCase(), snapshot::majorByCode,
+                missing -> majorRepository.findByCodesIgnoreCase(missing).stream()
+                        .collect(Collectors.toMap(m -> m.getCode().toLowerCase(), this::mapToMajorResponse, (first, second) -> first)));
     }
 
     @Override
@@ -66,6 +221,9 @@ public class MajorServiceImpl implements MajorService {
                 .build();
 
         Major savedMajor = majorRepository.save(major);
+        suggestionService.upsertMajor(savedMajor);
+        catalogCacheService.evict(CatalogCacheService.MAJOR, savedMajor.getId());
+        catalogSnapshotService.majorSaved(savedMajor);
         return mapToMajorResponse(savedMajor);
     }
 
@@ -83,7 +241,11 @@ public class MajorServiceImpl implements MajorService {
         existingMajor.setDurationYears(majorRequest.getDurationYears());
         existingMajor.setUniversity(university);
 
-        return mapToMajorResponse(majorRepository.save(existingMajor));
+        Major updatedMajor = majorRepository.save(existingMajor);
+        suggestionService.upsertMajor(updatedMajor);
+        catalogCacheService.evict(CatalogCacheService.MAJOR, id);
+        catalogSnapshotService.majorSaved(updatedMajor);
+        return mapToMajorResponse(updatedMajor);
     }
 
     @Override
@@ -92,6 +254,9 @@ public class MajorServiceImpl implements MajorService {
                 () -> new ResourceNotFoundException("Major", "id", id.toString())
         );
         majorRepository.delete(major);
+        suggestionService.remove(SuggestionType.MAJOR, id);
+        catalogCacheService.evict(CatalogCacheService.MAJOR, id);
+        catalogSnapshotService.majorDeleted(id);
     }
 
     private List<MajorResponse> mapToMajorResponse(List<Major> majorContent) {
@@ -101,15 +266,6 @@ public class MajorServiceImpl implements MajorService {
     }
 
     private MajorResponse mapToMajorResponse(Major major) {
-        return MajorResponse.builder()
-                .id(major.getId())
-                .name(major.getName())
-                .description(major.getDescription())
-                .universityId(major.getUniversity().getId())
-                .createdAt(String.valueOf(major.getCreatedAt()))
-                .createdBy(major.getCreatedBy())
-                .updatedAt(String.valueOf(major.getUpdatedAt()))
-                .updatedBy(major.getUpdatedBy())
-                .build();
+        return CatalogMapper.toResponse(major);
     }
 }
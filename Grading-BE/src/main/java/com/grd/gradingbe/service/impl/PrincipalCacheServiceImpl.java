@@ -0,0 +1,253 @@
+package com.grd.gradingbe.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.grd.gradingbe.dto.enums.Role;
+import com.grd.gradingbe.dto.token.CachedPrincipal;
+import com.grd.gradingbe.model.User;
+import com.grd.gradingbe.repository.UserRepository;
+import com.grd.gradingbe.service.PrincipalCacheService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Two-level cache (local Caffeine, then Redis) of the role/active flags the JWT filter needs.
+ * Entries carry the per-user version they were loaded under and are only served while that
+ * version is still current: local hits are checked against the version key too (one GET, no DB),
+ * so a missed pub/sub message cannot keep a changed user alive on a node. Invalidation messages
+ * only drop local entries early. While Redis is unreachable, local entries are served until they expire.
+ */
+@Service
+@Slf4j
+public class PrincipalCacheServiceImpl implements PrincipalCacheService, MessageListener
+{
+    private static final String PRINCIPAL_KEY = "auth:principal:";
+    private static final String VERSION_KEY = "auth:principal:version:";
+    private static final String INVALIDATION_CHANNEL = "auth:principal:invalidate";
+    private static final Duration VERSION_TTL = Duration.ofDays(1);
+
+    private final UserRepository userRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final Duration remoteTtl;
+
+    private final Cache<Integer, CachedPrincipal> localCache;
+    // Highest version announced by other nodes, so a load racing an invalidation is not cached locally
+    private final Cache<Integer, Long> knownVersions;
+
+    private final Counter localHits;
+    private final Counter remoteHits;
+    private final Counter misses;
+
+    public PrincipalCacheServiceImpl(UserRepository userRepository,
+                                     StringRedisTemplate redisTemplate,
+                                     RedisMessageListenerContainer listenerContainer,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${env.auth.principal-cache.local-ttl:30s}") Duration localTtl,
+                                     @Value("${env.auth.principal-cache.local-max-size:10000}") long localMaxSize,
+                                     @Value("${env.auth.principal-cache.remote-ttl:10m}") Duration remoteTtl)
+    {
+        this.userRepository = userRepository;
+        this.redisTemplate = redisTemplate;
+        this.remoteTtl = remoteTtl;
+        this.localCache = Caffeine.newBuilder()
+                .expireAfterWrite(localTtl)
+                .maximumSize(localMaxSize)
+                .build();
+        this.knownVersions = Caffeine.newBuilder()
+                .expireAfterWrite(remoteTtl)
+                .maximumSize(localMaxSize)
+                .build();
+
+        this.localHits = cacheCounter(meterRegistry, "l1_hit");
+        this.remoteHits = cacheCounter(meterRegistry, "l2_hit");
+        this.misses = cacheCounter(meterRegistry, "miss");
+
+        listenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    @Override
+    public Optional<CachedPrincipal> get(Integer userId)
+    {
+        CachedPrincipal principal = localCache.getIfPresent(userId);
+        if (principal != null)
+        {
+            Long version = currentVersion(userId);
+            if (version == null || version == principal.version())
+            {
+                localHits.increment();
+                return Optional.of(principal);
+            }
+            localCache.invalidate(userId);
+        }
+
+        principal = readRemote(userId);
+        if (principal != null)
+        {
+            remoteHits.increment();
+            putLocal(principal);
+            return Optional.of(principal);
+        }
+
+        misses.increment();
+        return load(userId);
+    }
+
+    @Override
+    public void invalidate(Integer userId)
+    {
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization()
+            {
+                @Override
+                public void afterCommit()
+                {
+                    bumpVersion(userId);
+                }
+            });
+            return;
+        }
+        bumpVersion(userId);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern)
+    {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(":", 2);
+        Integer userId = Integer.valueOf(parts[0]);
+        long version = Long.parseLong(parts[1]);
+
+        knownVersions.asMap().merge(userId, version, Math::max);
+        localCache.invalidate(userId);
+    }
+
+    private CachedPrincipal readRemote(Integer userId)
+    {
+        try
+        {
+            List<String> values = redisTemplate.opsForValue().multiGet(List.of(PRINCIPAL_KEY + userId, VERSION_KEY + userId));
+            if (values == null || values.get(0) == null)
+            {
+                return null;
+            }
+
+            CachedPrincipal principal = deserialize(userId, values.get(0));
+            long currentVersion = values.get(1) != null ? Long.parseLong(values.get(1)) : 0L;
+            return principal.version() == currentVersion ? principal : null;
+        }
+        catch (DataAccessException e)
+        {
+            log.debug("Redis unavailable while reading principal {}: {}", userId, e.getMessage());
+            return null;
+        }
+    }
+
+    private Optional<CachedPrincipal> load(Integer userId)
+    {
+        // Read the version before the row: a bump that lands in between leaves this entry stale, never current
+        Long version = currentVersion(userId);
+
+        Optional<User> user = userRepository.findById(userId);
+        if (user.isEmpty())
+        {
+            return Optional.empty();
+        }
+
+        CachedPrincipal principal = new CachedPrincipal(
+                userId,
+                user.get().getRole(),
+                user.get().isEnabled(),
+                version != null ? version : 0L
+        );
+
+        if (version != null)
+        {
+            try
+            {
+                redisTemplate.opsForValue().set(PRINCIPAL_KEY + userId, serialize(principal), remoteTtl);
+            }
+            catch (DataAccessException e)
+            {
+                log.debug("Redis unavailable while caching principal {}: {}", userId, e.getMessage());
+            }
+        }
+        putLocal(principal);
+
+        return Optional.of(principal);
+    }
+
+    private Long currentVersion(Integer userId)
+    {
+        try
+        {
+            String value = redisTemplate.opsForValue().get(VERSION_KEY + userId);
+            return value != null ? Long.parseLong(value) : 0L;
+        }
+        catch (DataAccessException e)
+        {
+            log.debug("Redis unavailable while reading principal version {}: {}", userId, e.getMessage());
+            return null;
+        }
+    }
+
+    private void putLocal(CachedPrincipal principal)
+    {
+        Long known = knownVersions.getIfPresent(principal.userId());
+        if (known == null || principal.version() >= known)
+        {
+            localCache.put(principal.userId(), principal);
+        }
+    }
+
+    private void bumpVersion(Integer userId)
+    {
+        localCache.invalidate(userId);
+        try
+        {
+            String versionKey = VERSION_KEY + userId;
+            Long version = redisTemplate.opsForValue().increment(versionKey);
+            redisTemplate.expire(versionKey, VERSION_TTL);
+            redisTemplate.delete(PRINCIPAL_KEY + userId);
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, userId + ":" + version);
+        }
+        catch (DataAccessException e)
+        {
+            log.warn("Failed to publish principal invalidation for user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    private static String serialize(CachedPrincipal principal)
+    {
+        return principal.role().name() + "|" + principal.active() + "|" + principal.version();
+    }
+
+    private static CachedPrincipal deserialize(Integer userId, String value)
+    {
+        String[] parts = value.split("\\|", 3);
+        return new CachedPrincipal(userId, Role.valueOf(parts[0]), Boolean.parseBoolean(parts[1]), Long.parseLong(parts[2]));
+    }
+
+    private static Counter cacheCounter(MeterRegistry meterRegistry, String result)
+    {
+        return Counter.builder("auth.principal.cache.requests")
+                .description("Principal lookups in the JWT filter by cache outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,194 @@
+package com.grd.gradingbe.service.impl;
+
+import com.grd.gradingbe.dto.token.StoredRefreshToken;
+import com.grd.gradingbe.service.RefreshTokenStore;
+import com.grd.gradingbe.utilities.TokenHashUtils;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Keeps refresh tokens in Redis. Each token lives under its SHA-256 hash with a TTL equal to its
+ * remaining validity, and a per-user sorted set (scored by expiry) tracks the user's tokens so the
+ * per-user limit is enforced in the same round trip as the insert.
+ * <p>
+ * Only single-node Redis (optionally behind Sentinel) is supported, not Redis Cluster. Refresh
+ * tokens are opaque, so the owner is only known after reading the token key. The scripts therefore
+ * derive the user set and evicted token keys inside Lua instead of receiving them in {@code KEYS},
+ * and token keys of different hashes live in different slots. Startup fails on a cluster
+ * connection rather than issuing CROSSSLOT or wrong-slot writes.
+ */
+@Service
+@ConditionalOnProperty(name = "env.jwt.refresh-token-store", havingValue = "redis")
+@RequiredArgsConstructor
+@Slf4j
+public class RedisRefreshTokenStore implements RefreshTokenStore {
+
+    private static final String TOKEN_KEY = "auth:refresh:";
+    private static final String USER_KEY = "auth:refresh:user:";
+
+    // KEYS: token key, user set | ARGV: value, ttl ms, now ms, expiry ms, token hash, max tokens, token key prefix
+    private static final RedisScript<Long> SAVE_SCRIPT = RedisScript.of("""
+            redis.call('ZREMRANGEBYSCORE', KEYS[2], '-inf', ARGV[3])
+            redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])
+            redis.call('ZADD', KEYS[2], ARGV[4], ARGV[5])
+            redis.call('PEXPIRE', KEYS[2], ARGV[2])
+            local excess = redis.call('ZCARD', KEYS[2]) - tonumber(ARGV[6])
+            if excess > 0 then
+                local evicted = redis.call('ZPOPMIN', KEYS[2], excess)
+                for i = 1, #evicted, 2 do
+                    redis.call('DEL', ARGV[7] .. evicted[i])
+                end
+                return excess
+            end
+            return 0
+            """, Long.class);
+
+    // Writes the owner's set, derived from the stored value (single-node only, see class doc)
+    // KEYS: old token key, new token key | ARGV: user set prefix, old hash, new expiry ms, new ttl ms, new hash
+    private static final RedisScript<Long> ROTATE_SCRIPT = RedisScript.of("""
+            local value = redis.call('GET', KEYS[1])
+            if not value then
+                return nil
+            end
+            local userId = string.match(value, '^([^|]+)')
+            local userKey = ARGV[1] .. userId
+            redis.call('DEL', KEYS[1])
+            redis.call('ZREM', userKey, ARGV[2])
+            redis.call('SET', KEYS[2], userId .. '|' .. ARGV[3], 'PX', ARGV[4])
+            redis.call('ZADD', userKey, ARGV[3], ARGV[5])
+            redis.call('PEXPIRE', userKey, ARGV[4])
+            return tonumber(userId)
+            """, Long.class);
+
+    // KEYS: token key | ARGV: user set prefix, token hash
+    private static final RedisScript<Long> DELETE_SCRIPT = RedisScript.of("""
+            local value = redis.call('GET', KEYS[1])
+            if not value then
+                return 0
+            end
+            redis.call('DEL', KEYS[1])
+            redis.call('ZREM', ARGV[1] .. string.match(value, '^([^|]+)'), ARGV[2])
+            return 1
+            """, Long.class);
+
+    // Deletes token keys derived from the set members (single-node only, see class doc)
+    // KEYS: user set | ARGV: token key prefix
+    private static final RedisScript<Long> DELETE_USER_SCRIPT = RedisScript.of("""
+            local members = redis.call('ZRANGE', KEYS[1], 0, -1)
+            for i = 1, #members do
+                redis.call('DEL', ARGV[1] .. members[i])
+            end
+            redis.call('DEL', KEYS[1])
+            return #members
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${env.jwt.max-tokens-per-user:5}")
+    private long maxTokensPerUser;
+
+    @PostConstruct
+    void rejectCluster() {
+        if (redisTemplate.getConnectionFactory() instanceof LettuceConnectionFactory factory
+                && factory.getClusterConfiguration() != null) {
+            throw new IllegalStateException("env.jwt.refresh-token-store=redis does not support Redis Cluster; use jpa or a single-node Redis");
+        }
+    }
+
+    @Override
+    public void save(String token, Integer userId, LocalDateTime expiryDate) {
+        String hash = TokenHashUtils.sha256Hex(token);
+        long now = System.currentTimeMillis();
+        long expiry = toEpochMilli(expiryDate);
+
+        Long evicted = redisTemplate.execute(
+                SAVE_SCRIPT,
+                List.of(TOKEN_KEY + hash, USER_KEY + userId),
+                userId + "|" + expiry,
+                String.valueOf(Math.max(expiry - now, 1)),
+                String.valueOf(now),
+                String.valueOf(expiry),
+                hash,
+                String.valueOf(maxTokensPerUser),
+                TOKEN_KEY
+        );
+
+        if (evicted != null && evicted > 0) {
+            log.info("User {} exceeded {} refresh tokens, evicted {} oldest", userId, maxTokensPerUser, evicted);
+        }
+    }
+
+    @Override
+    public Optional<StoredRefreshToken> findActive(String token) {
+        String value = redisTemplate.opsForValue().get(TOKEN_KEY + TokenHashUtils.sha256Hex(token));
+        if (value == null) {
+            return Optional.empty();
+        }
+
+        String[] parts = value.split("\\|", 2);
+        return Optional.of(new StoredRefreshToken(
+                token,
+                Integer.valueOf(parts[0]),
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(parts[1])), ZoneId.systemDefault())
+        ));
+    }
+
+    @Override
+    public Optional<Integer> rotate(String token, String newToken, LocalDateTime newExpiryDate) {
+        String hash = TokenHashUtils.sha256Hex(token);
+        String newHash = TokenHashUtils.sha256Hex(newToken);
+        long expiry = toEpochMilli(newExpiryDate);
+
+        Long userId = redisTemplate.execute(
+                ROTATE_SCRIPT,
+                List.of(TOKEN_KEY + hash, TOKEN_KEY + newHash),
+                USER_KEY,
+                hash,
+                String.valueOf(expiry),
+                String.valueOf(Math.max(expiry - System.currentTimeMillis(), 1)),
+                newHash
+        );
+        return Optional.ofNullable(userId).map(Long::intValue);
+    }
+
+    @Override
+    public boolean delete(String token) {
+        String hash = TokenHashUtils.sha256Hex(token);
+        Long deleted = redisTemplate.execute(DELETE_SCRIPT, List.of(TOKEN_KEY + hash), USER_KEY, hash);
+        return deleted != null && deleted > 0;
+    }
+
+    @Override
+    public void deleteAllForUser(Integer userId) {
+        redisTemplate.execute(DELETE_USER_SCRIPT, List.of(USER_KEY + userId), TOKEN_KEY);
+    }
+
+    @Override
+    public void revokeAllForUser(Integer userId) {
+        // Revoked tokens are never read again, so revoking is the same as deleting here
+        deleteAllForUser(userId);
+    }
+
+    @Override
+    public long deleteExpired(LocalDateTime now) {
+        // Expired tokens are dropped by their key TTL and pruned from the user sets on the next save
+        return 0;
+    }
+
+    private static long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -1,115 +1,106 @@
 package com.grd.gradingbe.service.impl;
 
+import com.grd.gradingbe.dto.token.StoredRefreshToken;
 import com.grd.gradingbe.exception.ResourceNotFoundException;
-import com.grd.gradingbe.model.RefreshToken;
 import com.grd.gradingbe.model.User;
-import com.grd.gradingbe.repository.RefreshTokenRepository;
 import com.grd.gradingbe.service.RefreshTokenService;
-import lombok.RequiredArgsConstructor;
+import com.grd.gradingbe.service.RefreshTokenStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
-@Transactional
 public class RefreshTokenServiceImpl implements RefreshTokenService {
     
-    private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenStore refreshTokenStore;
+    private final Timer cleanupTimer;
+    private final Counter cleanupDeleted;
     
     @Value("${env.jwt.refresh-token-validity-days:7}")
     private long refreshTokenValidityDays;
     
-    @Value("${env.jwt.max-tokens-per-user:5}")
-    private long maxTokensPerUser;
+    public RefreshTokenServiceImpl(RefreshTokenStore refreshTokenStore, MeterRegistry meterRegistry) {
+        this.refreshTokenStore = refreshTokenStore;
+        this.cleanupTimer = Timer.builder("auth.refresh_tokens.cleanup.duration")
+                .description("Duration of expired refresh token sweeps")
+                .register(meterRegistry);
+        this.cleanupDeleted = Counter.builder("auth.refresh_tokens.cleanup.deleted")
+                .description("Expired refresh tokens removed by the cleanup sweep")
+                .register(meterRegistry);
+    }
     
     @Override
-    public RefreshToken createRefreshToken(User user) {
+    public StoredRefreshToken createRefreshToken(User user) {
         log.info("Creating refresh token for user: {}", user.getId());
         
-        cleanupUserTokensIfNeeded(user);
-        
-        RefreshToken refreshToken = RefreshToken.builder()
-                .user(user)
-                .token(generateRefreshTokenValue())
-                .expiryDate(LocalDateTime.now().plusDays(refreshTokenValidityDays))
-                .build();
+        String token = generateRefreshTokenValue();
+        LocalDateTime expiryDate = LocalDateTime.now().plusDays(refreshTokenValidityDays);
         
-        RefreshToken savedToken = refreshTokenRepository.save(refreshToken);
-        log.info("Created refresh token with ID: {} for user: {}", savedToken.getId(), user.getId());
+        refreshTokenStore.save(token, user.getId(), expiryDate);
+        log.info("Created refresh token for user: {}", user.getId());
         
-        return savedToken;
+        return new StoredRefreshToken(token, user.getId(), expiryDate);
     }
     
     @Override
-    @Transactional(readOnly = true)
-    public RefreshToken validateRefreshToken(String token) {
-        log.debug("Validating refresh token");
+    public StoredRefreshToken rotateRefreshToken(String token) {
+        String newToken = generateRefreshTokenValue();
+        LocalDateTime expiryDate = LocalDateTime.now().plusDays(refreshTokenValidityDays);
         
-        RefreshToken refreshToken = refreshTokenRepository.findByTokenAndRevokedFalse(token)
+        Integer userId = refreshTokenStore.rotate(token, newToken, expiryDate)
                 .orElseThrow(() -> {
-                    log.warn("Refresh token not found or revoked");
+                    log.warn("Refresh token not found, revoked, expired or already rotated");
                     return new ResourceNotFoundException("Refresh token", "token", "***");
                 });
         
-        if (refreshToken.isExpired()) {
-            log.warn("Refresh token expired for user: {}", refreshToken.getUser().getId());
-            refreshTokenRepository.delete(refreshToken);
-            throw new RuntimeException("Refresh token is expired");
-        }
-        
-        log.debug("Refresh token validated successfully for user: {}", refreshToken.getUser().getId());
-        return refreshToken;
+        log.debug("Rotated refresh token for user: {}", userId);
+        return new StoredRefreshToken(newToken, userId, expiryDate);
     }
     
     @Override
     public void deleteRefreshToken(String token) {
         log.info("Deleting refresh token");
         
-        RefreshToken refreshToken = refreshTokenRepository.findByToken(token)
-                .orElseThrow(() -> new ResourceNotFoundException("Refresh token", "token", "***"));
-        
-        refreshTokenRepository.delete(refreshToken);
-        log.info("Deleted refresh token for user: {}", refreshToken.getUser().getId());
+        if (!refreshTokenStore.delete(token)) {
+            throw new ResourceNotFoundException("Refresh token", "token", "***");
+        }
+        log.info("Deleted refresh token");
     }
     
     @Override
     public void deleteAllUserTokens(User user) {
         log.info("Deleting all refresh tokens for user: {}", user.getId());
-        refreshTokenRepository.deleteByUser(user);
+        refreshTokenStore.deleteAllForUser(user.getId());
     }
     
     @Override
     public void revokeAllUserTokens(User user) {
         log.info("Revoking all refresh tokens for user: {}", user.getId());
-        refreshTokenRepository.revokeAllUserTokens(user);
+        refreshTokenStore.revokeAllForUser(user.getId());
     }
     
     @Override
     public void cleanupExpiredTokens() {
         log.info("Cleaning up expired refresh tokens");
-        refreshTokenRepository.deleteExpiredTokens(LocalDateTime.now());
-    }
-    
-    @Override
-    public RefreshToken updateLastUsed(String token) {
-        RefreshToken refreshToken = validateRefreshToken(token);
-        refreshToken.setLastUsed(LocalDateTime.now());
-        return refreshTokenRepository.save(refreshToken);
-    }
-    
-    private void cleanupUserTokensIfNeeded(User user) {
-        long activeTokensCount = refreshTokenRepository.countActiveTokensByUser(user, LocalDateTime.now());
         
-        if (activeTokensCount >= maxTokensPerUser) {
-            log.info("User {} has {} active tokens, cleaning up old ones", user.getId(), activeTokensCount);
-            revokeAllUserTokens(user);
-        }
+        long start = System.nanoTime();
+        long deleted = refreshTokenStore.deleteExpired(LocalDateTime.now());
+        long elapsedNanos = System.nanoTime() - start;
+        
+        cleanupTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        cleanupDeleted.increment(deleted);
+        
+        double seconds = Math.max(elapsedNanos / 1_000_000_000.0, 0.001);
+        log.info("Removed {} expired refresh tokens in {} ms ({} rows/s)",
+                deleted, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), Math.round(deleted / seconds));
     }
     
     private String generateRefreshTokenValue() {
@@ -0,0 +1,331 @@
+package com.grd.gradingbe.service.impl;
+
+import com.grd.gradingbe.dto.enums.SuggestionType;
+import com.grd.gradingbe.dto.response.SuggestionResponse;
+import com.grd.gradingbe.model.Major;
+import com.grd.gradingbe.model.University;
+import com.grd.gradingbe.repository.MajorRepository;
+import com.grd.gradingbe.repository.UniversityRepository;
+import com.grd.gradingbe.service.SuggestionService;
+import com.grd.gradingbe.utilities.SearchUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Typeahead index held entirely in memory. Every folded name suffix starting at a word boundary,
+ * plus the folded code, is a key in a sorted map, so a prefix lookup is one range scan
+ * ({@code subMap(prefix, prefix + Character.MAX_VALUE)}) with no database access.
+ * Keys are suffixed with the entry id so one term can point at many entries.
+ * <p>
+ * Prefixes of up to {@value #SHORT_PREFIX_LENGTH} characters match too much of the catalog to rank
+ * by scanning, so each keeps its {@link SuggestionService#MAX_LIMIT} most viewed entries, updated on
+ * every write and view. Longer prefixes are ranked over at most {@code max-scanned-keys} keys in
+ * term order; past that the ranking is approximate, which only happens for prefixes still shared by
+ * thousands of terms.
+ */
+@Service
+@Slf4j
+public class SuggestionServiceImpl implements SuggestionService {
+
+    private static final char KEY_SEPARATOR = '\u0000';
+    private static final int LOAD_BATCH_SIZE = 1000;
+    private static final int SHORT_PREFIX_LENGTH = 3;
+    private static final Comparator<Entry> BEST_FIRST = Comparator.comparingLong(Entry::views).reversed()
+            .thenComparing(Entry::name, Comparator.nullsLast(Comparator.<String>naturalOrder()));
+
+    private final UniversityRepository universityRepository;
+    private final MajorRepository majorRepository;
+    private final int maxScannedKeys;
+
+    private volatile Index index = new Index();
+    // Survives rebuilds so ranking does not reset every interval
+    private final Map<String, LongAdder> popularity = new ConcurrentHashMap<>();
+
+    public SuggestionServiceImpl(UniversityRepository universityRepository,
+                                 MajorRepository majorRepository,
+                                 @Value("${env.catalog.suggest.max-scanned-keys:2000}") int maxScannedKeys) {
+        this.universityRepository = universityRepository;
+        this.majorRepository = majorRepository;
+        this.maxScannedKeys = maxScannedKeys;
+    }
+
+    @Override
+    public List<SuggestionResponse> suggest(String prefix, int limit) {
+        String folded = SearchUtils.fold(prefix);
+        if (folded.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Index current = index;
+        List<Entry> ranked = folded.length() <= SHORT_PREFIX_LENGTH
+                ? current.topOf(folded)
+                : top(current.terms.subMap(folded, true, folded + Character.MAX_VALUE, false).values(), maxScannedKeys);
+
+        return ranked.stream()
+                .limit(limit)
+                .map(entry -> SuggestionResponse.builder()
+                        .type(entry.type())
+                        .id(entry.id())
+                        .name(entry.name())
+                        .code(entry.code())
+                        .build())
+                .toList();
+    }
+
+    @Override
+    public void recordView(SuggestionType type, Long id) {
+        String key = entryKey(type, id);
+        popularity.computeIfAbsent(key, k -> new LongAdder()).increment();
+        // The extra view may lift the entry into the top list of its short prefixes
+        index.touch(key);
+    }
+
+    @Override
+    public void upsertUniversity(University university) {
+        index.put(entry(SuggestionType.UNIVERSITY, university.getId(), university.getName(), university.getCode()));
+    }
+
+    @Override
+    public void upsertMajor(Major major) {
+        index.put(entry(SuggestionType.MAJOR, major.getId(), major.getName(), major.getCode()));
+    }
+
+    @Override
+    public void remove(SuggestionType type, Long id) {
+        index.remove(entryKey(type, id));
+        popularity.remove(entryKey(type, id));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        rebuild();
+    }
+
+    /**
+     * Full reload, so changes made through other nodes show up here too. Built off to the side and
+     * swapped in; writes that land on the old index during the reload are replayed onto the new one.
+     */
+    @Scheduled(initialDelayString = "${env.catalog.suggest.rebuild-interval-ms:600000}",
+            fixedDelayString = "${env.catalog.suggest.rebuild-interval-ms:600000}")
+    @Override
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        Index next = new Index();
+        Index previous = index;
+        previous.mirrorTo(next);
+        try {
+            load(universityRepository::findAll, university -> next.put(entry(SuggestionType.UNIVERSITY, university.getId(), university.getName(), university.getCode())));
+            load(majorRepository::findAll, major -> next.put(entry(SuggestionType.MAJOR, major.getId(), major.getName(), major.getCode())));
+            index = next;
+            log.info("Suggestion index rebuilt with {} entries in {} ms", next.entries.size(), System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            log.warn("Failed to rebuild suggestion index, keeping the current one: {}", e.getMessage());
+        } finally {
+            previous.mirrorTo(null);
+        }
+    }
+
+    private <T> void load(Function<PageRequest, Page<T>> finder, Consumer<T> consumer) {
+        PageRequest pageRequest = PageRequest.of(0, LOAD_BATCH_SIZE, Sort.by("id"));
+        Page<T> page;
+        do {
+            page = finder.apply(pageRequest);
+            page.getContent().forEach(consumer);
+            pageRequest = pageRequest.next();
+        } while (page.hasNext());
+    }
+
+    private Entry entry(SuggestionType type, Long id, String name, String code) {
+        String key = entryKey(type, id);
+        return new Entry(key, type, id, name, code, popularity.computeIfAbsent(key, k -> new LongAdder()));
+    }
+
+    private static String entryKey(SuggestionType type, Long id) {
+        return type.name() + ':' + id;
+    }
+
+    /**
+     * The {@link SuggestionService#MAX_LIMIT} best of the first {@code maxKeys} entries, best first.
+     */
+    private static List<Entry> top(Iterable<Entry> entries, int maxKeys) {
+        Set<Entry> candidates = new LinkedHashSet<>();
+        int scanned = 0;
+        for (Entry entry : entries) {
+            candidates.add(entry);
+            if (++scanned >= maxKeys) {
+                break;
+            }
+        }
+
+        PriorityQueue<Entry> top = new PriorityQueue<>(SuggestionService.MAX_LIMIT + 1, BEST_FIRST.reversed());
+        for (Entry entry : candidates) {
+            top.offer(entry);
+            if (top.size() > SuggestionService.MAX_LIMIT) {
+                top.poll();
+            }
+        }
+        return bestFirst(top);
+    }
+
+    /**
+     * Sorts on views read once per entry: a view counted mid-sort would break the comparator contract.
+     */
+    private static List<Entry> bestFirst(Collection<Entry> entries) {
+        Map<Entry, Long> views = new HashMap<>();
+        entries.forEach(entry -> views.put(entry, entry.views()));
+        return entries.stream()
+                .sorted(Comparator.<Entry>comparingLong(views::get).reversed()
+                        .thenComparing(Entry::name, Comparator.nullsLast(Comparator.<String>naturalOrder())))
+                .toList();
+    }
+
+    private static Set<String> shortPrefixes(List<String> termKeys) {
+        Set<String> prefixes = new HashSet<>();
+        for (String termKey : termKeys) {
+            String term = termKey.substring(0, termKey.indexOf(KEY_SEPARATOR));
+            for (int length = 1; length <= Math.min(SHORT_PREFIX_LENGTH, term.length()); length++) {
+                prefixes.add(term.substring(0, length));
+            }
+        }
+        return prefixes;
+    }
+
+    private static List<String> indexTerms(String name, String code) {
+        Set<String> terms = new HashSet<>();
+        String foldedName = SearchUtils.fold(name);
+        if (!foldedName.isEmpty()) {
+            terms.add(foldedName);
+            for (int i = foldedName.indexOf(' '); i >= 0; i = foldedName.indexOf(' ', i + 1)) {
+                terms.add(foldedName.substring(i + 1));
+            }
+        }
+        String foldedCode = SearchUtils.fold(code);
+        if (!foldedCode.isEmpty()) {
+            terms.add(foldedCode);
+        }
+        return List.copyOf(terms);
+    }
+
+    private record Entry(String key, SuggestionType type, Long id, String name, String code, LongAdder popularity) {
+        long views() {
+            return popularity.sum();
+        }
+    }
+
+    private static final class Index {
+        private final ConcurrentSkipListMap<String, Entry> terms = new ConcurrentSkipListMap<>();
+        // Entry key -> the term keys it was indexed under, needed to remove or replace it
+        private final Map<String, List<String>> entries = new ConcurrentHashMap<>();
+        // Short prefix -> its MAX_LIMIT most viewed entries, best first (as of the last update)
+        private final Map<String, List<Entry>> topByPrefix = new ConcurrentHashMap<>();
+        private volatile Index mirror;
+
+        void put(Entry entry) {
+            List<String> keys = indexTerms(entry.name(), entry.code()).stream()
+                    .map(term -> term + KEY_SEPARATOR + entry.key())
+                    .toList();
+            Set<String> dropped = new HashSet<>();
+            entries.compute(entry.key(), (key, previousKeys) -> {
+                if (previousKeys != null) {
+                    previousKeys.forEach(terms::remove);
+                    dropped.addAll(shortPrefixes(previousKeys));
+                }
+                keys.forEach(termKey -> terms.put(termKey, entry));
+                return keys;
+            });
+
+            Set<String> prefixes = shortPrefixes(keys);
+            dropped.removeAll(prefixes);
+            // A renamed entry leaves the lists of prefixes it no longer has
+            dropped.forEach(this::recomputeTop);
+            prefixes.forEach(prefix -> offerTop(prefix, entry));
+
+            Index target = mirror;
+            if (target != null) {
+                target.put(entry);
+            }
+        }
+
+        void remove(String entryKey) {
+            Set<String> dropped = new HashSet<>();
+            entries.computeIfPresent(entryKey, (key, previousKeys) -> {
+                previousKeys.forEach(terms::remove);
+                dropped.addAll(shortPrefixes(previousKeys));
+                return null;
+            });
+            dropped.forEach(this::recomputeTop);
+
+            Index target = mirror;
+            if (target != null) {
+                target.remove(entryKey);
+            }
+        }
+
+        void touch(String entryKey) {
+            List<String> keys = entries.get(entryKey);
+            if (keys == null || keys.isEmpty()) {
+                return;
+            }
+            Entry entry = terms.get(keys.get(0));
+            if (entry != null) {
+                shortPrefixes(keys).forEach(prefix -> offerTop(prefix, entry));
+            }
+            Index target = mirror;
+            if (target != null) {
+                target.touch(entryKey);
+            }
+        }
+
+        /**
+         * Best first by current views; only the order within the list can have moved since it was built.
+         */
+        List<Entry> topOf(String prefix) {
+            return bestFirst(topByPrefix.getOrDefault(prefix, List.of()));
+        }
+
+        private void offerTop(String prefix, Entry entry) {
+            topByPrefix.compute(prefix, (key, current) -> {
+                List<Entry> next = current == null ? new ArrayList<>() : new ArrayList<>(current);
+                next.removeIf(existing -> existing.key().equals(entry.key()));
+                next.add(entry);
+                List<Entry> sorted = bestFirst(next);
+                return sorted.subList(0, Math.min(sorted.size(), SuggestionService.MAX_LIMIT));
+            });
+        }
+
+        // After a removal the list may be missing its next-best entry; rare enough to rescan the range
+        private void recomputeTop(String prefix) {
+            topByPrefix.compute(prefix, (key, current) -> {
+                List<Entry> top = top(terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values(), Integer.MAX_VALUE);
+                return top.isEmpty() ? null : List.copyOf(top);
+            });
+        }
+
+        void mirrorTo(Index target) {
+            this.mirror = target;
+        }
+    }
+}
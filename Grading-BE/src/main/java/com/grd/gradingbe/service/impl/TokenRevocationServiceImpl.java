@@ -0,0 +1,199 @@
+package com.grd.gradingbe.service.impl;
+
+import com.grd.gradingbe.dto.token.VerifiedToken;
+import com.grd.gradingbe.service.TokenRevocationService;
+import com.grd.gradingbe.utilities.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Access-token revocation list. Revoked {@code jti}s live in Redis with a TTL equal to the token's
+ * remaining lifetime and are mirrored into a per-node Bloom filter, so the usual "not revoked"
+ * answer needs no network call. Bloom filters cannot forget, so the filter is rebuilt periodically
+ * from the keys still present in Redis.
+ */
+@Service
+@Slf4j
+public class TokenRevocationServiceImpl implements TokenRevocationService, MessageListener
+{
+    private static final String REVOKED_KEY = "auth:revoked:";
+    private static final String REVOCATION_CHANNEL = "auth:revoked";
+
+    private final StringRedisTemplate redisTemplate;
+    private final long expectedRevocations;
+    private final double falsePositiveProbability;
+
+    private final AtomicReference<BloomFilter> filter;
+    // Filter being rebuilt; revocations announced meanwhile are written to both
+    private volatile BloomFilter rebuilding;
+
+    private final Timer lookupTimer;
+    private final Counter negatives;
+    private final Counter confirmed;
+    private final Counter falsePositives;
+    private final Counter unverified;
+
+    public TokenRevocationServiceImpl(StringRedisTemplate redisTemplate,
+                                      RedisMessageListenerContainer listenerContainer,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${env.auth.revocation.expected-revocations:100000}") long expectedRevocations,
+                                      @Value("${env.auth.revocation.false-positive-probability:0.001}") double falsePositiveProbability)
+    {
+        this.redisTemplate = redisTemplate;
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.filter = new AtomicReference<>(new BloomFilter(expectedRevocations, falsePositiveProbability));
+
+        this.lookupTimer = Timer.builder("auth.token.revocation.lookup")
+                .description("Time spent deciding whether an access token is revoked")
+                .register(meterRegistry);
+        this.negatives = checkCounter(meterRegistry, "bloom_negative");
+        this.confirmed = checkCounter(meterRegistry, "revoked");
+        this.falsePositives = checkCounter(meterRegistry, "false_positive");
+        this.unverified = checkCounter(meterRegistry, "unverified");
+        Gauge.builder("auth.token.revocation.bloom.fpp", filter, f -> f.get().expectedFalsePositiveProbability())
+                .description("False-positive probability implied by the current Bloom filter fill")
+                .register(meterRegistry);
+
+        listenerContainer.addMessageListener(this, new ChannelTopic(REVOCATION_CHANNEL));
+    }
+
+    @Override
+    public void revoke(VerifiedToken token)
+    {
+        String tokenId = token.tokenId();
+        if (tokenId == null || token.expiresAt() == null)
+        {
+            return;
+        }
+
+        Duration remaining = Duration.between(Instant.now(), token.expiresAt());
+        if (remaining.isNegative() || remaining.isZero())
+        {
+            return;
+        }
+
+        addLocal(tokenId);
+        try
+        {
+            redisTemplate.opsForValue().set(REVOKED_KEY + tokenId, token.subject(), remaining);
+            redisTemplate.convertAndSend(REVOCATION_CHANNEL, tokenId);
+        }
+        catch (DataAccessException e)
+        {
+            log.warn("Failed to store access token revocation {}: {}", tokenId, e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isRevoked(VerifiedToken token)
+    {
+        String tokenId = token.tokenId();
+        if (tokenId == null)
+        {
+            return false;
+        }
+
+        long start = System.nanoTime();
+        try
+        {
+            if (!filter.get().mightContain(tokenId))
+            {
+                negatives.increment();
+                return false;
+            }
+
+            try
+            {
+                if (Boolean.TRUE.equals(redisTemplate.hasKey(REVOKED_KEY + tokenId)))
+                {
+                    confirmed.increment();
+                    return true;
+                }
+                falsePositives.increment();
+                return false;
+            }
+            catch (DataAccessException e)
+            {
+                // A filter hit we cannot disprove: prefer rejecting a token over honouring a revoked one
+                unverified.increment();
+                log.debug("Redis unavailable while confirming revocation {}: {}", tokenId, e.getMessage());
+                return true;
+            }
+        }
+        finally
+        {
+            lookupTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern)
+    {
+        addLocal(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${env.auth.revocation.rebuild-interval-ms:300000}")
+    public void rebuild()
+    {
+        BloomFilter next = new BloomFilter(expectedRevocations, falsePositiveProbability);
+        rebuilding = next;
+        long count = 0;
+        try (Cursor<String> keys = redisTemplate.scan(ScanOptions.scanOptions().match(REVOKED_KEY + "*").count(1000).build()))
+        {
+            while (keys.hasNext())
+            {
+                next.put(keys.next().substring(REVOKED_KEY.length()));
+                count++;
+            }
+            filter.set(next);
+            log.debug("Rebuilt access token revocation filter with {} entries", count);
+        }
+        catch (DataAccessException e)
+        {
+            log.warn("Failed to rebuild access token revocation filter, keeping the current one: {}", e.getMessage());
+        }
+        finally
+        {
+            rebuilding = null;
+        }
+    }
+
+    private void addLocal(String tokenId)
+    {
+        filter.get().put(tokenId);
+        BloomFilter pending = rebuilding;
+        if (pending != null)
+        {
+            pending.put(tokenId);
+        }
+    }
+
+    private static Counter checkCounter(MeterRegistry meterRegistry, String result)
+    {
+        return Counter.builder("auth.token.revocation.checks")
+                .description("Access token revocation checks by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
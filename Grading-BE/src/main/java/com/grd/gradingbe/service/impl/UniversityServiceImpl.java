@@ -1,52 +1,268 @@
 package com.grd.gradingbe.service.impl;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grd.gradingbe.dto.enums.CountMode;
+import com.grd.gradingbe.dto.enums.SuggestionType;
 import com.grd.gradingbe.dto.enums.TypeUniversity;
+import com.grd.gradingbe.dto.request.BatchLookupRequest;
 import com.grd.gradingbe.dto.request.UniversityRequest;
+import com.grd.gradingbe.dto.response.BatchItem;
+import com.grd.gradingbe.dto.response.MajorResponse;
 import com.grd.gradingbe.dto.response.PageResponse;
 import com.grd.gradingbe.dto.response.UniversityResponse;
+import com.grd.gradingbe.exception.ArgumentValidationException;
 import com.grd.gradingbe.exception.ResourceNotFoundException;
+import com.grd.gradingbe.model.Major;
 import com.grd.gradingbe.model.University;
+import com.grd.gradingbe.repository.CatalogProjectionRepository;
+import com.grd.gradingbe.repository.MajorRepository;
 import com.grd.gradingbe.repository.UniversityRepository;
+import com.grd.gradingbe.service.CatalogCacheService;
+import com.grd.gradingbe.service.CatalogCountService;
+import com.grd.gradingbe.service.CatalogSnapshotService;
 import com.grd.gradingbe.service.UniversityService;
+import com.grd.gradingbe.service.SuggestionService;
+import com.grd.gradingbe.utilities.BatchLookup;
+import com.grd.gradingbe.utilities.CatalogMapper;
+import com.grd.gradingbe.utilities.CatalogSnapshot;
+import com.grd.gradingbe.utilities.FieldSet;
+import com.grd.gradingbe.utilities.KeysetCursor;
+import com.grd.gradingbe.utilities.SearchUtils;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class UniversityServiceImpl implements UniversityService {
 
+    private static final TypeReference<PageResponse<UniversityResponse>> PAGE_TYPE = new TypeReference<>() {};
+    private static final TypeReference<UniversityResponse> ENTITY_TYPE = new TypeReference<>() {};
+
     private final UniversityRepository universityRepository;
+    private final MajorRepository majorRepository;
+    private final MeterRegistry meterRegistry;
+    private final SuggestionService suggestionService;
+    private final CatalogCountService catalogCountService;
+    private final CatalogCacheService catalogCacheService;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final CatalogProjectionRepository catalogProjectionRepository;
+    private final ObjectMapper objectMapper;
 
     @Override
-    public PageResponse<UniversityResponse> getAllUniversities(int page, int size, String sortBy, String sortDir, String search) {
-        Sort sortObj = sortBy.equalsIgnoreCase(Sort.Direction.ASC.name()) ? Sort.by(sortBy).ascending() : Sort.by(sortBy).descending();
-        Pageable pageable = PageRequest.of(page, size, sortObj);
-        Page<University> pageUniversity = universityRepository.findAll(pageable);
-        List<University> universityContent = pageUniversity.getContent();
+    public PageResponse<UniversityResponse> getAllUniversities(int page, int size, String sortBy, String sortDir, String search, String cursor, CountMode countMode) {
+        if (cursor == null && !StringUtils.hasText(search)) {
+            // Plain listing by id or createdAt comes straight from memory, with exact totals whatever the count mode
+            PageResponse<UniversityResponse> snapshotPage = catalogSnapshotService.current().universityPage(page, size, sortBy, sortDir);
+            if (snapshotPage != null) {
+                return snapshotPage;
+            }
+        }
+
+        String params = String.join(":", String.valueOf(page), String.valueOf(size), sortBy, sortDir, countMode.name(),
+                String.valueOf(cursor), StringUtils.hasText(search) ? search.trim() : "");
+        return catalogCacheService.getList(CatalogCacheService.UNIVERSITY, params, PAGE_TYPE,
+                () -> loadUniversities(page, size, sortBy, sortDir, search, cursor, countMode));
+    }
+
+    private PageResponse<UniversityResponse> loadUniversities(int page, int size, String sortBy, String sortDir, String search, String cursor, CountMode countMode) {
+        if (cursor != null) {
+            if (StringUtils.hasText(search)) {
+                throw new ArgumentValidationException("Cursor pagination cannot be combined with search");
+            }
+            return getUniversitiesAfter(cursor, size, sortBy, sortDir);
+        }
+
+        // Only count=exact pays for a COUNT(*); the other modes fetch size + 1 rows through a Slice
+        boolean searching = StringUtils.hasText(search);
+        String query = searching ? search.trim() : null;
+        PageRequest pageRequest = searching ? PageRequest.of(page, size) : PageRequest.of(page, size, sortOf(sortBy, sortDir));
+
+        if (countMode == CountMode.EXACT) {
+            Page<University> pageUniversity = searching
+                    ? meterRegistry.timer("catalog.search", "entity", "university").record(
+                            () -> universityRepository.search(query, SearchUtils.escapeLike(query), pageRequest))
+                    : universityRepository.findAll(pageRequest);
+            return PageResponse.of(pageUniversity, mapToUniversityResponse(pageUniversity.getContent()), pageUniversity.getTotalElements());
+        }
+
+        // Relevance order; sortBy/sortDir only apply to plain listing
+        Slice<University> sliceUniversity = searching
+                ? meterRegistry.timer("catalog.search", "entity", "university").record(
+                        () -> universityRepository.searchSlice(query, SearchUtils.escapeLike(query), pageRequest))
+                : universityRepository.findAllBy(pageRequest);
+
+        return PageResponse.of(sliceUniversity, mapToUniversityResponse(sliceUniversity.getContent()), estimatedTotal(countMode, sliceUniversity, query));
+    }
+
+    private Long estimatedTotal(CountMode countMode, Slice<?> slice, String query) {
+        if (countMode != CountMode.ESTIMATE) {
+            return null;
+        }
+        long seen = slice.getPageable().getOffset() + slice.getNumberOfElements();
+        // Exact once we reach the end; otherwise never report fewer rows than we know exist
+        // (and only that lower bound while a new search is still being counted)
+        return slice.hasNext()
+                ? Math.max(catalogCountService.estimate(CatalogCountService.UNIVERSITIES, query).orElse(0), seen + 1)
+                : seen;
+    }
+
+    @Override
+    public PageResponse<Map<String, Object>> getUniversityFields(FieldSet fields, int page, int size, String sortBy, String sortDir, String search, String cursor, CountMode countMode) {
+        if (cursor != null || StringUtils.hasText(search)) {
+            // Relevance ranking and keyset seeks need the full queries; narrow the finished page instead
+            return getAllUniversities(page, size, sortBy, sortDir, search, cursor, countMode)
+                    .map(response -> fields.project(response, objectMapper));
+        }
+
+        PageResponse<UniversityResponse> snapshotPage = catalogSnapshotService.current().universityPage(page, size, sortBy, sortDir);
+        if (snapshotPage != null) {
+            return snapshotPage.map(response -> fields.project(response, objectMapper));
+        }
+
+        // Only the selected columns are read, e.g. no description text for a name/logo list
+        Slice<Map<String, Object>> slice = catalogProjectionRepository.findFields(
+                University.class, fields.paths(), FieldSet.UNIVERSITY_EMPTY_WHEN_NULL, PageRequest.of(page, size, sortOf(sortBy, sortDir)));
+        Long totalElements = countMode == CountMode.EXACT
+                ? universityRepository.count()
+                : estimatedTotal(countMode, slice, null);
+        return PageResponse.of(slice, slice.getContent(), totalElements);
+    }
+
+    private Sort sortOf(String sortBy, String sortDir) {
+        return sortDir.equalsIgnoreCase(Sort.Direction.ASC.name()) ? Sort.by(sortBy).ascending() : Sort.by(sortBy).descending();
+    }
+
+    private PageResponse<UniversityResponse> getUniversitiesAfter(String cursor, int size, String sortBy, String sortDir) {
+        Sort.Direction direction = sortDir.equalsIgnoreCase(Sort.Direction.ASC.name()) ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort sort = KeysetCursor.sort(sortBy, direction);
+        ScrollPosition position = KeysetCursor.decode(cursor, sortBy, direction);
+
+        // Seeks past the cursor row on the (sortBy, id) index; no OFFSET and no COUNT
+        Window<University> window = universityRepository.findBy(
+                (Specification<University>) (root, query, builder) -> null,
+                fluentQuery -> fluentQuery.sortBy(sort).limit(size).scroll(position)
+        );
 
         return PageResponse.<UniversityResponse>builder()
-                .content(mapToUniversityResponse(universityContent))
-                .page(pageUniversity.getNumber())
-                .size(pageUniversity.getSize())
-                .totalElements((int) pageUniversity.getTotalElements())
-                .totalPages(pageUniversity.getTotalPages())
-                .last(pageUniversity.isLast())
+                .content(mapToUniversityResponse(window.getContent()))
+                .size(size)
+                .first(cursor.isBlank())
+                .last(!window.hasNext())
+                .hasNext(window.hasNext())
+                .empty(window.isEmpty())
+                .nextCursor(KeysetCursor.next(window, sortBy, direction))
                 .build();
     }
 
+    @Override
+    public String getUniversitiesVersion(boolean includeMajors) {
+        // Fingerprints taken when the snapshot was built, so no query per request
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        if (!includeMajors) {
+            return snapshot.universitiesVersion();
+        }
+        return snapshot.universitiesVersion() != null && snapshot.majorsVersion() != null
+                ? snapshot.universitiesVersion() + "+" + snapshot.majorsVersion()
+                : null;
+    }
+
     @Override
     public UniversityResponse getUniversityById(Long id) {
-        University university = universityRepository.findById(id).orElseThrow(
-                () -> new ResourceNotFoundException("University", "id", id.toString())
-        );
+        UniversityResponse response = catalogSnapshotService.current().university(id);
+        if (response == null) {
+            // Snapshot not loaded yet, or the row was created on another node since its last reload
+            response = catalogCacheService.getEntity(CatalogCacheService.UNIVERSITY, id, ENTITY_TYPE, () -> mapToUniversityResponse(
+                    universityRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("University", "id", id.toString()))
+            ));
+        }
+        suggestionService.recordView(SuggestionType.UNIVERSITY, id);
+
+        return response;
+    }
+
+    @Override
+    public List<MajorResponse> getUniversityMajors(Long id) {
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        if (snapshot.university(id) != null) {
+            return snapshot.majorsOf(id);
+        }
+        if (!universityRepository.existsById(id)) {
+            throw new ResourceNotFoundException("University", "id", id.toString());
+        }
+        return getMajorsByUniversity(List.of(id)).getOrDefault(id, List.of());
+    }
+
+    @Override
+    public Map<Long, List<MajorResponse>> getMajorsByUniversity(Collection<Long> universityIds) {
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        Map<Long, List<MajorResponse>> majors = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long universityId : universityIds) {
+            if (snapshot.university(universityId) != null) {
+                majors.put(universityId, snapshot.majorsOf(universityId));
+            } else {
+                missing.add(universityId);
+            }
+        }
 
-        return mapToUniversityResponse(university);
+        if (!missing.isEmpty()) {
+            // One IN query for the whole page instead of one per university
+            for (Major major : majorRepository.findByUniversityIds(missing)) {
+                majors.computeIfAbsent(major.getUniversity().getId(), key -> new ArrayList<>())
+                        .add(CatalogMapper.toResponse(major));
+            }
+        }
+        return majors;
+    }
+
+    @Override
+    public PageResponse<UniversityResponse> withMajors(PageResponse<UniversityResponse> universities) {
+        // Majors for the whole page in one lookup, not one per university
+        Map<Long, List<MajorResponse>> majors = getMajorsByUniversity(
+                universities.getContent().stream().map(UniversityResponse::id).toList());
+        return universities.map(university -> university.withMajors(majors.getOrDefault(university.id(), List.of())));
+    }
+
+    @Override
+    public UniversityResponse withMajors(UniversityResponse university) {
+        return university.withMajors(getMajorsByUniversity(List.of(university.id())).getOrDefault(university.id(), List.of()));
+    }
+
+    @Override
+    public List<BatchItem<UniversityResponse>> getUniversitiesBatch(BatchLookupRequest request) {
+        boolean byIds = request.getIds() != null && !request.getIds().isEmpty();
+        boolean byCodes = request.getCodes() != null && !request.getCodes().isEmpty();
+        if (byIds == byCodes) {
+            throw new ArgumentValidationException("Exactly one of ids or codes must be given");
+        }
+
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        if (byIds) {
+            return BatchLookup.resolve(request.getIds(), Function.identity(), snapshot::university,
+                    missing -> universityRepository.findAllById(missing).stream()
+                            .collect(Collectors.toMap(University::getId, this::mapToUniversityResponse)));
+        }
+        return BatchLookup.resolve(request.getCodes(), code -> code.trim().toLowerCase(), snapshot::universityByCode,
+                missing -> universityRepository.findByCodesIgnoreCase(missing).stream()
+                        .collect(Collectors.toMap(u -> u.getCode().toLowerCase(), this::mapToUniversityResponse, (first, second) -> first)));
     }
 
     @Override
@@ -64,6 +280,9 @@ public class UniversityServiceImpl implements UniversityService {
                 .build();
 
         University savedUniversity = universityRepository.save(university);
+        suggestionService.upsertUniversity(savedUniversity);
+        catalogCacheService.evict(CatalogCacheService.UNIVERSITY, savedUniversity.getId());
+        catalogSnapshotService.universitySaved(savedUniversity);
         return mapToUniversityResponse(savedUniversity);
     }
 
@@ -84,6 +303,9 @@ public class UniversityServiceImpl implements UniversityService {
         university.setTypeUniversity(TypeUniversity.fromValue(universityRequest.getTypeUniversity()));
 
         University updatedUniversity = universityRepository.save(university);
+        suggestionService.upsertUniversity(updatedUniversity);
+        catalogCacheService.evict(CatalogCacheService.UNIVERSITY, id);
+        catalogSnapshotService.universitySaved(updatedUniversity);
         return mapToUniversityResponse(updatedUniversity);
     }
 
@@ -93,6 +315,9 @@ public class UniversityServiceImpl implements UniversityService {
                 () -> new ResourceNotFoundException("University", "id", id.toString())
         );
         universityRepository.delete(university);
+        suggestionService.remove(SuggestionType.UNIVERSITY, id);
+        catalogCacheService.evict(CatalogCacheService.UNIVERSITY, id);
+        catalogSnapshotService.universityDeleted(id);
     }
 
     private List<UniversityResponse> mapToUniversityResponse(List<University> universityContent) {
@@ -102,21 +327,6 @@ public class UniversityServiceImpl implements UniversityService {
     }
 
     private UniversityResponse mapToUniversityResponse(University university) {
-        return UniversityResponse.builder()
-                .id(university.getId())
-                .name(university.getName())
-                .description(university.getDescription() != null ? university.getDescription() : "")
-                .code(university.getCode())
-                .address(university.getAddress() != null ? university.getAddress() : "")
-                .logoUrl(university.getLogoUrl() != null ? university.getLogoUrl() : "")
-                .phoneNumber(university.getPhoneNumber() != null ? university.getPhoneNumber() : "")
-                .email(university.getEmail() != null ? university.getEmail() : "")
-                .website(university.getWebsite() != null ? university.getWebsite() : "")
-                .typeUniversity(university.getTypeUniversity().getValue())
-                .createdAt(university.getCreatedAt().toString())
-                .createdBy(university.getCreatedBy())
-                .updatedAt(university.getUpdatedAt() != null ? university.getUpdatedAt().toString() : null)
-                .updatedBy(university.getUpdatedBy())
-                .build();
+        return CatalogMapper.toResponse(university);
     }
 }
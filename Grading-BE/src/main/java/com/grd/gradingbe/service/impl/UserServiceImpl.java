@@ -2,15 +2,13 @@ package com.grd.gradingbe.service.impl;
 
 import com.grd.gradingbe.dto.request.ChangePasswordRequest;
 import com.grd.gradingbe.dto.response.UserDataResponse;
-import com.grd.gradingbe.dto.enums.TokenType;
 import com.grd.gradingbe.exception.ArgumentValidationException;
 import com.grd.gradingbe.exception.ResourceManagementException;
 import com.grd.gradingbe.exception.ResourceNotFoundException;
 import com.grd.gradingbe.model.User;
 import com.grd.gradingbe.repository.UserRepository;
-import com.grd.gradingbe.service.JwtService;
+import com.grd.gradingbe.service.PrincipalCacheService;
 import com.grd.gradingbe.service.UserService;
-import io.jsonwebtoken.Claims;
 import org.springframework.dao.DataAccessException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -22,22 +20,18 @@ import java.util.Map;
 public class UserServiceImpl implements UserService
 {
     private final UserRepository userRepository;
-    private final JwtService jwtService;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCacheService principalCacheService;
 
-    public UserServiceImpl(UserRepository userRepository, JwtService jwtService, PasswordEncoder passwordEncoder)
+    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder, PrincipalCacheService principalCacheService)
     {
         this.userRepository = userRepository;
-        this.jwtService = jwtService;
         this.passwordEncoder = passwordEncoder;
+        this.principalCacheService = principalCacheService;
     }
 
-    public UserDataResponse getUserData(String header)
+    public UserDataResponse getUserData(Integer userId)
     {
-        String token = extractToken(header);
-
-        Integer userId = Integer.parseInt(jwtService.extractClaim(TokenType.ACCESS, token, Claims::getSubject));
-
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId.toString()));
 
@@ -56,12 +50,8 @@ public class UserServiceImpl implements UserService
                 .build());
     }
 
-    public Map<String, String> changePassword(String header, ChangePasswordRequest request)
+    public Map<String, String> changePassword(Integer userId, ChangePasswordRequest request)
     {
-        String token = extractToken(header);
-
-        Integer userId = Integer.parseInt(jwtService.extractClaim(TokenType.ACCESS, token, Claims::getSubject));
-
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId.toString()));
 
@@ -80,28 +70,18 @@ public class UserServiceImpl implements UserService
             throw new ArgumentValidationException("Old password does not match the authenticated user");
         }
 
-        user.setPassword_hash(passwordEncoder.encode(request.getNewPassword()));
-        user.setUpdated_at(LocalDateTime.now());
+        String passwordHash = passwordEncoder.encode(request.getNewPassword());
 
         try
         {
-            userRepository.save(user);
+            userRepository.updatePassword(userId, passwordHash, LocalDateTime.now());
         }
         catch (DataAccessException e)
         {
             throw new ResourceManagementException("save()", String.format("User with id: %d", userId), "Failed to update user");
         }
+        principalCacheService.invalidate(userId);
 
         return Map.of("message", "Success");
     }
-
-    private String extractToken(String header)
-    {
-        String token = null;
-        if (header != null && header.startsWith("Bearer "))
-        {
-            token = header.substring(7);
-        }
-        return token;
-    }
 }
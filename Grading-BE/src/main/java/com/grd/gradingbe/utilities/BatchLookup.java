@@ -0,0 +1,47 @@
+package com.grd.gradingbe.utilities;
+
+import com.grd.gradingbe.dto.response.BatchItem;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Resolves a list of keys against the catalog snapshot first and the database second, with a single
+ * query for everything the snapshot did not have.
+ */
+public final class BatchLookup {
+
+    private BatchLookup() {
+    }
+
+    /**
+     * @param keys         requested keys, possibly repeated; the result has one item per key in the same order
+     * @param normalize    maps a key to the form used for lookups, e.g. lower-cased codes
+     * @param fromMemory   lookup by normalized key, null when absent
+     * @param fromDatabase one query for the normalized keys still missing, keyed by normalized key
+     */
+    public static <K, R> List<BatchItem<R>> resolve(List<K> keys,
+                                                    Function<K, K> normalize,
+                                                    Function<K, R> fromMemory,
+                                                    Function<List<K>, Map<K, R>> fromDatabase) {
+        Map<K, R> found = new HashMap<>();
+        List<K> missing = new ArrayList<>();
+        for (K key : new LinkedHashSet<>(keys.stream().map(normalize).toList())) {
+            R value = fromMemory.apply(key);
+            if (value != null) {
+                found.put(key, value);
+            } else {
+                missing.add(key);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            found.putAll(fromDatabase.apply(missing));
+        }
+        return keys.stream().map(key -> BatchItem.of(key, found.get(normalize.apply(key)))).toList();
+    }
+}
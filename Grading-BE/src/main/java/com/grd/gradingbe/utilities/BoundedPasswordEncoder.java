@@ -0,0 +1,142 @@
+package com.grd.gradingbe.utilities;
+
+import com.grd.gradingbe.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs the (deliberately slow) delegate encoder on a small CPU-sized pool with a bounded queue,
+ * so a login burst cannot pin every request thread. When the queue is full the caller gets a
+ * {@link TooManyRequestsException} straight away instead of waiting in line.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean
+{
+    private static final long RETRY_AFTER_SECONDS = 1;
+    private static final String BUSY_MESSAGE = "Too many authentication requests, please retry shortly";
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Timer queueWaitTimer;
+    private final Counter rejectedCounter;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, Duration timeout, MeterRegistry meterRegistry)
+    {
+        this.delegate = delegate;
+        this.timeout = timeout;
+        this.executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("password-hash-"),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        this.encodeTimer = hashTimer(meterRegistry, "encode");
+        this.matchesTimer = hashTimer(meterRegistry, "matches");
+        this.queueWaitTimer = Timer.builder("auth.password.hash.queue.wait")
+                .description("Time password hashing tasks spend queued before running")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("auth.password.hash.rejected")
+                .description("Password hashing requests rejected because the queue was full or timed out")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.hash.queue.size", executor, e -> e.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("auth.password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword)
+    {
+        return run(() -> delegate.encode(rawPassword), encodeTimer);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword)
+    {
+        return run(() -> delegate.matches(rawPassword, encodedPassword), matchesTimer);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword)
+    {
+        // Only inspects the hash prefix, no need to go through the pool
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void destroy()
+    {
+        executor.shutdown();
+    }
+
+    private <T> T run(Callable<T> task, Timer timer)
+    {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try
+        {
+            future = executor.submit(() -> {
+                queueWaitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return timer.recordCallable(task);
+            });
+        }
+        catch (RejectedExecutionException e)
+        {
+            rejectedCounter.increment();
+            throw new TooManyRequestsException(BUSY_MESSAGE, RETRY_AFTER_SECONDS);
+        }
+
+        try
+        {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        catch (TimeoutException e)
+        {
+            future.cancel(true);
+            rejectedCounter.increment();
+            throw new TooManyRequestsException(BUSY_MESSAGE, RETRY_AFTER_SECONDS);
+        }
+        catch (InterruptedException e)
+        {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        }
+        catch (ExecutionException e)
+        {
+            if (e.getCause() instanceof RuntimeException runtimeException)
+            {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private static Timer hashTimer(MeterRegistry meterRegistry, String operation)
+    {
+        return Timer.builder("auth.password.hash")
+                .description("Time spent computing password hashes")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,30 @@
+package com.grd.gradingbe.utilities;
+
+import com.grd.gradingbe.exception.ArgumentValidationException;
+import org.springframework.util.StringUtils;
+
+/**
+ * Parsing of the {@code include} parameter of university endpoints.
+ */
+public final class CatalogIncludes {
+
+    public static final String MAJORS = "majors";
+
+    private CatalogIncludes() {
+    }
+
+    /**
+     * Whether majors should be embedded; rejects anything else in the comma-separated list.
+     */
+    public static boolean majors(String include) {
+        if (!StringUtils.hasText(include)) {
+            return false;
+        }
+        for (String value : include.split(",")) {
+            if (!value.isBlank() && !value.trim().equalsIgnoreCase(MAJORS)) {
+                throw new ArgumentValidationException("Unsupported include: " + value.trim());
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,51 @@
+package com.grd.gradingbe.utilities;
+
+import com.grd.gradingbe.dto.response.MajorResponse;
+import com.grd.gradingbe.dto.response.UniversityResponse;
+import com.grd.gradingbe.model.Major;
+import com.grd.gradingbe.model.University;
+
+/**
+ * Entity to response mapping shared by the catalog services and the in-memory catalog snapshot.
+ */
+public final class CatalogMapper {
+
+    private CatalogMapper() {
+    }
+
+    public static UniversityResponse toResponse(University university) {
+        return UniversityResponse.builder()
+                .id(university.getId())
+                .name(university.getName())
+                .description(university.getDescription() != null ? university.getDescription() : "")
+                .code(university.getCode())
+                .address(university.getAddress() != null ? university.getAddress() : "")
+                .logoUrl(university.getLogoUrl() != null ? university.getLogoUrl() : "")
+                .phoneNumber(university.getPhoneNumber() != null ? university.getPhoneNumber() : "")
+                .email(university.getEmail() != null ? university.getEmail() : "")
+                .website(university.getWebsite() != null ? university.getWebsite() : "")
+                .typeUniversity(university.getTypeUniversity().getValue())
+                .createdAt(university.getCreatedAt().toString())
+                .createdBy(university.getCreatedBy())
+                .updatedAt(university.getUpdatedAt() != null ? university.getUpdatedAt().toString() : null)
+                .updatedBy(university.getUpdatedBy())
+                .version(university.getVersion())
+                .build();
+    }
+
+    public static MajorResponse toResponse(Major major) {
+        return MajorResponse.builder()
+                .id(major.getId())
+                .name(major.getName())
+                .code(major.getCode())
+                .description(major.getDescription())
+                .durationYears(major.getDurationYears())
+                .universityId(major.getUniversity().getId())
+                .createdAt(String.valueOf(major.getCreatedAt()))
+                .createdBy(major.getCreatedBy())
+                .updatedAt(String.valueOf(major.getUpdatedAt()))
+                .updatedBy(major.getUpdatedBy())
+                .version(major.getVersion())
+                .build();
+    }
+}
@@ -0,0 +1,269 @@
+package com.grd.gradingbe.utilities;
+
+import com.grd.gradingbe.dto.entity.BaseEntity;
+import com.grd.gradingbe.dto.response.MajorResponse;
+import com.grd.gradingbe.dto.response.PageResponse;
+import com.grd.gradingbe.dto.response.UniversityResponse;
+import com.grd.gradingbe.model.Major;
+import com.grd.gradingbe.model.University;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Immutable copy of the whole university/major catalog as response DTOs, indexed by id, code and
+ * university, with every list pre-sorted by id and createdAt. Never modified after
+ * {@link #build}; writers replace the whole snapshot instead, either with a reload or with a copy
+ * that has one row replaced ({@link #withUniversity} and friends). The source entities are kept
+ * for those copies and are never modified here.
+ */
+public final class CatalogSnapshot {
+
+    public static final CatalogSnapshot EMPTY = new CatalogSnapshot();
+
+    private final boolean loaded;
+    private final List<University> universities;
+    private final List<Major> majors;
+    private final Map<Long, UniversityResponse> universitiesById;
+    private final Map<String, UniversityResponse> universitiesByCode;
+    private final Map<Long, MajorResponse> majorsById;
+    private final Map<String, MajorResponse> majorsByCode;
+    private final Map<Long, List<MajorResponse>> majorsByUniversity;
+    // sortBy -> ascending order; descending pages walk the same list backwards
+    private final Map<String, List<UniversityResponse>> sortedUniversities;
+    private final Map<String, List<MajorResponse>> sortedMajors;
+    // Fingerprints of (id, version) over each table: equal on every node holding the same data
+    private final String universitiesVersion;
+    private final String majorsVersion;
+
+    private CatalogSnapshot() {
+        this.loaded = false;
+        this.universities = List.of();
+        this.majors = List.of();
+        this.universitiesById = Map.of();
+        this.universitiesByCode = Map.of();
+        this.majorsById = Map.of();
+        this.majorsByCode = Map.of();
+        this.majorsByUniversity = Map.of();
+        this.sortedUniversities = Map.of();
+        this.sortedMajors = Map.of();
+        this.universitiesVersion = null;
+        this.majorsVersion = null;
+    }
+
+    private CatalogSnapshot(List<University> universities, List<Major> majors) {
+        this.loaded = true;
+        this.universities = List.copyOf(universities);
+        this.majors = List.copyOf(majors);
+
+        Map<Long, UniversityResponse> universityResponses = new HashMap<>();
+        Map<String, UniversityResponse> universityCodes = new HashMap<>();
+        for (University university : universities) {
+            UniversityResponse response = CatalogMapper.toResponse(university);
+            universityResponses.put(university.getId(), response);
+            if (university.getCode() != null) {
+                universityCodes.put(university.getCode().toLowerCase(), response);
+            }
+        }
+
+        Map<Long, MajorResponse> majorResponses = new HashMap<>();
+        Map<String, MajorResponse> majorCodes = new HashMap<>();
+        Map<Long, List<MajorResponse>> byUniversity = new HashMap<>();
+        for (Major major : majors) {
+            MajorResponse response = CatalogMapper.toResponse(major);
+            majorResponses.put(major.getId(), response);
+            if (major.getCode() != null) {
+                majorCodes.put(major.getCode().toLowerCase(), response);
+            }
+            byUniversity.computeIfAbsent(response.universityId(), id -> new ArrayList<>()).add(response);
+        }
+        // Id order whatever order the rows came in; patched copies append at the end
+        byUniversity.replaceAll((id, list) -> list.stream().sorted(Comparator.comparing(MajorResponse::id)).toList());
+
+        this.universitiesById = Map.copyOf(universityResponses);
+        this.universitiesByCode = Map.copyOf(universityCodes);
+        this.majorsById = Map.copyOf(majorResponses);
+        this.majorsByCode = Map.copyOf(majorCodes);
+        this.majorsByUniversity = Map.copyOf(byUniversity);
+        this.sortedUniversities = sortAll(universities, University::getId, universityResponses);
+        this.sortedMajors = sortAll(majors, Major::getId, majorResponses);
+        this.universitiesVersion = fingerprint(sortedUniversities.get("id"), UniversityResponse::id, UniversityResponse::version);
+        this.majorsVersion = fingerprint(sortedMajors.get("id"), MajorResponse::id, MajorResponse::version);
+    }
+
+    /**
+     * Builds a snapshot from fully loaded entities; majors only need their university's id.
+     */
+    public static CatalogSnapshot build(List<University> universities, List<Major> majors) {
+        return new CatalogSnapshot(universities, majors);
+    }
+
+    /**
+     * This snapshot with one university added or replaced. An unloaded snapshot stays unloaded:
+     * a partial catalog must never be served, and the pending load picks the row up anyway.
+     */
+    public CatalogSnapshot withUniversity(University university) {
+        if (!loaded) {
+            return this;
+        }
+        List<University> next = new ArrayList<>(universities.size() + 1);
+        for (University existing : universities) {
+            if (!existing.getId().equals(university.getId())) {
+                next.add(existing);
+            }
+        }
+        next.add(university);
+        return new CatalogSnapshot(next, majors);
+    }
+
+    /**
+     * This snapshot without the university and its majors.
+     */
+    public CatalogSnapshot withoutUniversity(Long id) {
+        if (!loaded) {
+            return this;
+        }
+        return new CatalogSnapshot(
+                universities.stream().filter(university -> !university.getId().equals(id)).toList(),
+                majors.stream().filter(major -> !id.equals(major.getUniversity().getId())).toList());
+    }
+
+    public CatalogSnapshot withMajor(Major major) {
+        if (!loaded) {
+            return this;
+        }
+        List<Major> next = new ArrayList<>(majors.size() + 1);
+        for (Major existing : majors) {
+            if (!existing.getId().equals(major.getId())) {
+                next.add(existing);
+            }
+        }
+        next.add(major);
+        return new CatalogSnapshot(universities, next);
+    }
+
+    public CatalogSnapshot withoutMajor(Long id) {
+        if (!loaded) {
+            return this;
+        }
+        return new CatalogSnapshot(universities, majors.stream().filter(major -> !major.getId().equals(id)).toList());
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public UniversityResponse university(Long id) {
+        return universitiesById.get(id);
+    }
+
+    public UniversityResponse universityByCode(String code) {
+        return code != null ? universitiesByCode.get(code.toLowerCase()) : null;
+    }
+
+    public MajorResponse major(Long id) {
+        return majorsById.get(id);
+    }
+
+    public MajorResponse majorByCode(String code) {
+        return code != null ? majorsByCode.get(code.toLowerCase()) : null;
+    }
+
+    /**
+     * Majors of a university in id order; empty for unknown ids.
+     */
+    public List<MajorResponse> majorsOf(Long universityId) {
+        return majorsByUniversity.getOrDefault(universityId, List.of());
+    }
+
+    /**
+     * Changes whenever a university is added, removed or updated; null until loaded.
+     */
+    public String universitiesVersion() {
+        return universitiesVersion;
+    }
+
+    public String majorsVersion() {
+        return majorsVersion;
+    }
+
+    public int universityCount() {
+        return universitiesById.size();
+    }
+
+    public int majorCount() {
+        return majorsById.size();
+    }
+
+    /**
+     * Offset page of universities, or null when the sort column is not pre-sorted here.
+     */
+    public PageResponse<UniversityResponse> universityPage(int page, int size, String sortBy, String sortDir) {
+        return page(sortedUniversities.get(sortBy), page, size, sortDir);
+    }
+
+    public PageResponse<MajorResponse> majorPage(int page, int size, String sortBy, String sortDir) {
+        return page(sortedMajors.get(sortBy), page, size, sortDir);
+    }
+
+    private static <T> PageResponse<T> page(List<T> ascending, int page, int size, String sortDir) {
+        if (ascending == null || page < 0 || size <= 0) {
+            return null;
+        }
+
+        List<T> ordered = sortDir.equalsIgnoreCase(Sort.Direction.ASC.name()) ? ascending : ascending.reversed();
+        long total = ordered.size();
+        long from = Math.min((long) page * size, total);
+        long to = Math.min(from + size, total);
+        List<T> content = ordered.subList((int) from, (int) to);
+
+        return PageResponse.<T>builder()
+                .content(content)
+                .page(page)
+                .size(size)
+                .totalElements(total)
+                .totalPages((int) ((total + size - 1) / size))
+                .first(page == 0)
+                .last(to >= total)
+                .empty(content.isEmpty())
+                .hasNext(to < total)
+                .build();
+    }
+
+    private static <R> String fingerprint(List<R> byId, Function<R, Long> id, Function<R, Long> version) {
+        long hash = 0xcbf29ce484222325L;
+        for (R response : byId) {
+            hash = (hash ^ id.apply(response)) * 0x100000001b3L;
+            hash = (hash ^ (version.apply(response) != null ? version.apply(response) : -1L)) * 0x100000001b3L;
+        }
+        return Long.toHexString(hash) + "-" + byId.size();
+    }
+
+    private static <E extends BaseEntity, R> Map<String, List<R>> sortAll(List<E> entities,
+                                                                          ToLongFunction<E> id,
+                                                                          Map<Long, R> responses) {
+        // Only orders Java reproduces exactly: nulls last ascending (and so first descending), like Postgres,
+        // ties broken by id. name and code stay on the database, whose collation (e.g. for "Đại học ...")
+        // code-point order does not match, so offset and cursor pages sort the same way.
+        Comparator<E> byId = Comparator.comparingLong(id);
+        Map<String, Comparator<E>> comparators = Map.of(
+                "id", byId,
+                "createdAt", Comparator.<E, LocalDateTime>comparing(BaseEntity::getCreatedAt, Comparator.nullsLast(Comparator.naturalOrder())).thenComparing(byId)
+        );
+
+        Map<String, List<R>> sorted = new HashMap<>();
+        comparators.forEach((sortBy, comparator) -> sorted.put(sortBy, entities.stream()
+                .sorted(comparator)
+                .map(entity -> responses.get(id.applyAsLong(entity)))
+                .toList()));
+        return Collections.unmodifiableMap(sorted);
+    }
+}
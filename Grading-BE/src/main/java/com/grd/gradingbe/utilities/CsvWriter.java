@@ -0,0 +1,33 @@
+package com.grd.gradingbe.utilities;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Writes RFC 4180 records, the counterpart of {@link CsvReader}.
+ */
+public final class CsvWriter {
+
+    private CsvWriter() {
+    }
+
+    public static void writeRecord(Writer out, List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            Object value = values.get(i);
+            if (value != null) {
+                out.write(escape(value.toString()));
+            }
+        }
+        out.write("\r\n");
+    }
+
+    private static String escape(String value) {
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        return quote ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    }
+}
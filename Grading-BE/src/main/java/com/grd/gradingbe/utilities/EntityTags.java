@@ -0,0 +1,40 @@
+package com.grd.gradingbe.utilities;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Validators for conditional GETs on catalog endpoints.
+ */
+public final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    /**
+     * Strong ETag over the given parts; any change in any part (including free-text request
+     * parameters) yields a different tag.
+     */
+    public static String strong(Object... parts) {
+        String joined = Arrays.stream(parts)
+                .map(String::valueOf)
+                .collect(Collectors.joining("\u0000"));
+        return '"' + DigestUtils.md5DigestAsHex(joined.getBytes(StandardCharsets.UTF_8)) + '"';
+    }
+
+    /**
+     * Epoch millis of a timestamp rendered by the response mappers, or -1 (no Last-Modified) when absent.
+     */
+    public static long lastModified(String timestamp) {
+        if (timestamp == null || timestamp.equals("null")) {
+            return -1;
+        }
+        // Auditing stores server-local time
+        return LocalDateTime.parse(timestamp).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
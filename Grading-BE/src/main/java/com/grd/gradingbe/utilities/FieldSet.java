@@ -0,0 +1,105 @@
+package com.grd.gradingbe.utilities;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grd.gradingbe.exception.ArgumentValidationException;
+import org.springframework.util.StringUtils;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A client-selected subset of response fields ({@code fields=id,name,logoUrl}), with the entity
+ * attribute path behind each one so the selection can be pushed down into the query.
+ */
+public final class FieldSet {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    // Response field -> entity attribute path
+    public static final Map<String, String> UNIVERSITY_FIELDS = paths(
+            "id", "name", "code", "address", "website", "typeUniversity", "phoneNumber", "email",
+            "description", "logoUrl", "createdAt", "createdBy", "updatedAt", "updatedBy", "version");
+    public static final Map<String, String> MAJOR_FIELDS = withPath(paths(
+            "id", "name", "code", "description", "durationYears",
+            "createdAt", "createdBy", "updatedAt", "updatedBy", "version"), "universityId", "university.id");
+    // Optional text fields that CatalogMapper renders as "" rather than null
+    public static final Set<String> UNIVERSITY_EMPTY_WHEN_NULL = Set.of(
+            "description", "address", "phoneNumber", "email", "website", "logoUrl");
+    // MajorResponse keeps a null description as null
+    public static final Set<String> MAJOR_EMPTY_WHEN_NULL = Set.of();
+
+    private final Map<String, String> selected;
+
+    private FieldSet(Map<String, String> selected) {
+        this.selected = selected;
+    }
+
+    /**
+     * Parses a comma-separated field list against the allowed fields. {@code id} is always included.
+     * Returns null when no list was given, meaning the full response.
+     */
+    public static FieldSet parse(String fields, Map<String, String> allowed) {
+        if (!StringUtils.hasText(fields)) {
+            return null;
+        }
+
+        Set<String> requested = new LinkedHashSet<>();
+        requested.add("id");
+        Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .forEach(requested::add);
+
+        Map<String, String> selected = new LinkedHashMap<>();
+        for (String field : requested) {
+            String path = allowed.get(field);
+            if (path == null) {
+                throw new ArgumentValidationException("Unknown field: " + field + " (allowed: " + String.join(", ", allowed.keySet()) + ")");
+            }
+            selected.put(field, path);
+        }
+        return new FieldSet(selected);
+    }
+
+    /**
+     * Selected response field -> entity attribute path, in request order.
+     */
+    public Map<String, String> paths() {
+        return selected;
+    }
+
+    public List<String> names() {
+        return List.copyOf(selected.keySet());
+    }
+
+    /**
+     * Trims an already built response down to the selected fields, for pages that come from memory
+     * or from queries that cannot be narrowed.
+     */
+    public Map<String, Object> project(Object response, ObjectMapper objectMapper) {
+        Map<String, Object> all = objectMapper.convertValue(response, MAP_TYPE);
+        Map<String, Object> projected = new LinkedHashMap<>();
+        for (String field : selected.keySet()) {
+            projected.put(field, all.get(field));
+        }
+        return projected;
+    }
+
+    private static Map<String, String> paths(String... fields) {
+        Map<String, String> paths = new LinkedHashMap<>();
+        for (String field : fields) {
+            paths.put(field, field);
+        }
+        return paths;
+    }
+
+    private static Map<String, String> withPath(Map<String, String> paths, String field, String path) {
+        paths.put(field, path);
+        return paths;
+    }
+}
@@ -3,10 +3,13 @@ package com.grd.gradingbe.utilities;
 import com.grd.gradingbe.dto.enums.TokenType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.grd.gradingbe.dto.response.ErrorResponse;
-import com.grd.gradingbe.model.User;
-import com.grd.gradingbe.repository.UserRepository;
+import com.grd.gradingbe.dto.token.CachedPrincipal;
+import com.grd.gradingbe.dto.token.VerifiedToken;
+import com.grd.gradingbe.exception.JwtManagementException;
 import com.grd.gradingbe.service.JwtService;
-import io.jsonwebtoken.Claims;
+import com.grd.gradingbe.service.PrincipalCacheService;
+import com.grd.gradingbe.service.TokenRevocationService;
+import io.jsonwebtoken.ExpiredJwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -28,13 +31,15 @@ import java.util.List;
 public class JwtFilter extends OncePerRequestFilter
 {
     private final JwtService jwtService;
-    private final UserRepository userRepository;
+    private final PrincipalCacheService principalCacheService;
+    private final TokenRevocationService tokenRevocationService;
     private final ObjectMapper objectMapper;
 
-    public JwtFilter(JwtService jwtService, UserRepository userRepository, ObjectMapper objectMapper)
+    public JwtFilter(JwtService jwtService, PrincipalCacheService principalCacheService, TokenRevocationService tokenRevocationService, ObjectMapper objectMapper)
     {
         this.jwtService = jwtService;
-        this.userRepository = userRepository;
+        this.principalCacheService = principalCacheService;
+        this.tokenRevocationService = tokenRevocationService;
         this.objectMapper = objectMapper;
     }
 
@@ -69,38 +74,53 @@ public class JwtFilter extends OncePerRequestFilter
             return;
         }
 
-        // Validate token format and signature
-        if (!jwtService.validateToken(token)
-            && !"access".equals(jwtService.extractHeader(TokenType.ACCESS, token).get("typ")))
+        // Verify signature, type and expiry in a single parse
+        VerifiedToken verifiedToken;
+        try
+        {
+            verifiedToken = jwtService.verify(TokenType.ACCESS, token);
+        }
+        catch (ExpiredJwtException e)
+        {
+            sendErrorResponse(response, HttpServletResponse.SC_UNAUTHORIZED, "JWT token has expired");
+            return;
+        }
+        catch (JwtManagementException e)
         {
             sendErrorResponse(response, HttpServletResponse.SC_UNAUTHORIZED, "Invalid JWT token");
             return;
         }
 
-        // Check if token is expired
-        if (jwtService.isTokenExpired(TokenType.ACCESS, token))
+        if (tokenRevocationService.isRevoked(verifiedToken))
         {
-            sendErrorResponse(response, HttpServletResponse.SC_UNAUTHORIZED, "JWT token has expired");
+            sendErrorResponse(response, HttpServletResponse.SC_UNAUTHORIZED, "JWT token has been revoked");
             return;
         }
 
-        // Extract user ID and fetch user
+        // Extract user ID and resolve the principal from cache
         try {
-            Integer userId = Integer.valueOf(jwtService.extractClaim(TokenType.ACCESS, token, Claims::getSubject));
-            User user = userRepository.findById(userId).orElse(null);
+            Integer userId = verifiedToken.userId();
+            CachedPrincipal principal = principalCacheService.get(userId).orElse(null);
             
-            if (user == null)
+            if (principal == null)
             {
                 sendErrorResponse(response, HttpServletResponse.SC_UNAUTHORIZED, "User not found");
                 return;
             }
 
+            if (!principal.active())
+            {
+                sendErrorResponse(response, HttpServletResponse.SC_UNAUTHORIZED, "User account is inactive");
+                return;
+            }
+
             // Create authentication token
             UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
-                    userId, null, List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()))
+                    userId, null, List.of(new SimpleGrantedAuthority("ROLE_" + principal.role().name()))
             );
             auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
             SecurityContextHolder.getContext().setAuthentication(auth);
+            request.setAttribute(VerifiedToken.REQUEST_ATTRIBUTE, verifiedToken);
             
             chain.doFilter(request, response);
         } catch (Exception e) {
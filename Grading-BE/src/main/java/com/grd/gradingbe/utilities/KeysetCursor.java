@@ -0,0 +1,102 @@
+package com.grd.gradingbe.utilities;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grd.gradingbe.exception.ArgumentValidationException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Opaque cursor for keyset pagination over catalog lists: the sort it was issued for plus the
+ * (sort column, id) values of the last row returned, as base64url JSON. Clients pass it back
+ * unchanged; the next page then seeks on the composite index instead of skipping rows.
+ */
+public final class KeysetCursor {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    // Sortable fields, each a NOT NULL column backed by a (column, id) index, and how to read their cursor value back.
+    // A nullable column cannot be added: the seek predicate (column > ?) never matches NULL rows
+    private static final Map<String, Function<String, Object>> SORT_FIELDS = Map.of(
+            "id", Long::valueOf,
+            "name", value -> value,
+            "code", value -> value,
+            "createdAt", LocalDateTime::parse
+    );
+
+    private KeysetCursor() {
+    }
+
+    public static Sort sort(String sortBy, Sort.Direction direction) {
+        if (!SORT_FIELDS.containsKey(sortBy)) {
+            throw new ArgumentValidationException("Cursor pagination supports sortBy " + SORT_FIELDS.keySet());
+        }
+        Sort sort = Sort.by(direction, sortBy);
+        return "id".equals(sortBy) ? sort : sort.and(Sort.by(direction, "id"));
+    }
+
+    public static ScrollPosition decode(String cursor, String sortBy, Sort.Direction direction) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+
+        Payload payload;
+        try {
+            payload = MAPPER.readValue(Base64.getUrlDecoder().decode(cursor), Payload.class);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new ArgumentValidationException("Cursor is not valid");
+        }
+
+        if (!sortBy.equals(payload.sortBy()) || !direction.name().equals(payload.direction())) {
+            throw new ArgumentValidationException("Cursor was issued for a different sort order");
+        }
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        try {
+            for (Sort.Order order : sort(sortBy, direction)) {
+                String value = payload.keys().get(order.getProperty());
+                keys.put(order.getProperty(), SORT_FIELDS.get(order.getProperty()).apply(value));
+            }
+        } catch (RuntimeException e) {
+            throw new ArgumentValidationException("Cursor is not valid");
+        }
+        return ScrollPosition.forward(keys);
+    }
+
+    /**
+     * Cursor for the page after {@code window}, or null when it was the last one.
+     */
+    public static String next(Window<?> window, String sortBy, Sort.Direction direction) {
+        if (!window.hasNext() || window.isEmpty()) {
+            return null;
+        }
+
+        KeysetScrollPosition position = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+        Map<String, String> keys = new LinkedHashMap<>();
+        position.getKeys().forEach((property, value) -> {
+            if (value == null) {
+                throw new IllegalStateException("Cursor sort key " + property + " is null");
+            }
+            keys.put(property, value.toString());
+        });
+
+        try {
+            byte[] json = MAPPER.writeValueAsBytes(new Payload(sortBy, direction.name(), keys));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode cursor", e);
+        }
+    }
+
+    private record Payload(String sortBy, String direction, Map<String, String> keys) {
+    }
+}
@@ -0,0 +1,36 @@
+package com.grd.gradingbe.utilities;
+
+import com.grd.gradingbe.service.MailService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MailOutboxDispatcher {
+
+    private final MailService mailService;
+
+    @Scheduled(fixedDelayString = "${env.mail.outbox.poll-interval-ms:1000}", scheduler = "mailDispatchTaskScheduler")
+    public void dispatch() {
+        try {
+            mailService.deliverPending();
+        } catch (RuntimeException e) {
+            log.warn("Mail outbox dispatch failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${env.mail.outbox.purge-interval-ms:3600000}", scheduler = "mailDispatchTaskScheduler")
+    public void purge() {
+        try {
+            long deleted = mailService.purgeFinished();
+            if (deleted > 0) {
+                log.info("Purged {} finished mail outbox entries", deleted);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Mail outbox purge failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.grd.gradingbe.utilities;
+
+import com.grd.gradingbe.dto.enums.MailType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.HtmlUtils;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Renders each mail template once at startup with a placeholder link and keeps the static parts
+ * around it, so a send only escapes the link and concatenates strings.
+ */
+@Component
+public class MailTemplateCache {
+
+    private static final String LINK_PLACEHOLDER = "__mail_link_placeholder__";
+
+    private final Map<MailType, CompiledTemplate> templates = new EnumMap<>(MailType.class);
+
+    public MailTemplateCache(TemplateEngine templateEngine) {
+        compile(templateEngine, MailType.REGISTRATION, "registration-mail-template", "Xác nhận tài khoản");
+        compile(templateEngine, MailType.CHANGE_PASSWORD, "change-password-mail-template", "Đổi mật khẩu");
+    }
+
+    public String subject(MailType type) {
+        return template(type).subject();
+    }
+
+    public String render(MailType type, String link) {
+        String[] fragments = template(type).fragments();
+        // Same escaping Thymeleaf applies to th:href values
+        String escapedLink = HtmlUtils.htmlEscape(link);
+
+        StringBuilder html = new StringBuilder(fragments.length * escapedLink.length() + 4096);
+        html.append(fragments[0]);
+        for (int i = 1; i < fragments.length; i++) {
+            html.append(escapedLink).append(fragments[i]);
+        }
+        return html.toString();
+    }
+
+    private CompiledTemplate template(MailType type) {
+        CompiledTemplate template = templates.get(type);
+        if (template == null) {
+            throw new IllegalArgumentException("Mail type is not valid");
+        }
+        return template;
+    }
+
+    private void compile(TemplateEngine templateEngine, MailType type, String templateName, String subject) {
+        Context context = new Context();
+        context.setVariable("link", LINK_PLACEHOLDER);
+        String rendered = templateEngine.process(templateName, context);
+
+        String[] fragments = rendered.split(Pattern.quote(LINK_PLACEHOLDER), -1);
+        if (fragments.length < 2) {
+            throw new IllegalStateException("Mail template " + templateName + " does not render the link");
+        }
+        templates.put(type, new CompiledTemplate(subject, fragments));
+    }
+
+    private record CompiledTemplate(String subject, String[] fragments) {
+    }
+}
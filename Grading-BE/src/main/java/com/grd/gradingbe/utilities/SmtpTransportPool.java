@@ -0,0 +1,95 @@
+package com.grd.gradingbe.utilities;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.LinkedBlockingDeque;
+
+/**
+ * Keeps authenticated SMTP connections open between batches instead of paying the
+ * connect/STARTTLS/AUTH handshake on every send. A borrowed transport is used by one thread only;
+ * connections idle longer than {@code max-idle} are closed rather than reused, since servers drop
+ * them on their side anyway.
+ */
+@Component
+@Slf4j
+public class SmtpTransportPool implements DisposableBean {
+
+    private final JavaMailSenderImpl mailSender;
+    private final int maxIdle;
+    private final long maxIdleMillis;
+    private final LinkedBlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<>();
+    private final Counter opened;
+
+    public SmtpTransportPool(JavaMailSenderImpl mailSender,
+                             MeterRegistry meterRegistry,
+                             @Value("${env.mail.outbox.workers:4}") int maxIdle,
+                             @Value("${env.mail.smtp-pool.max-idle-time:60s}") Duration maxIdleTime) {
+        this.mailSender = mailSender;
+        this.maxIdle = maxIdle;
+        this.maxIdleMillis = maxIdleTime.toMillis();
+        this.opened = Counter.builder("mail.smtp.connections.opened")
+                .description("SMTP connections opened by the transport pool")
+                .register(meterRegistry);
+        Gauge.builder("mail.smtp.connections.idle", idle, LinkedBlockingDeque::size)
+                .register(meterRegistry);
+    }
+
+    public Transport borrow() throws MessagingException {
+        PooledTransport pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (System.currentTimeMillis() - pooled.returnedAt() <= maxIdleMillis && pooled.transport().isConnected()) {
+                return pooled.transport();
+            }
+            close(pooled.transport());
+        }
+        return connect();
+    }
+
+    public void release(Transport transport) {
+        if (transport.isConnected() && idle.size() < maxIdle) {
+            idle.offerFirst(new PooledTransport(transport, System.currentTimeMillis()));
+            return;
+        }
+        close(transport);
+    }
+
+    public void invalidate(Transport transport) {
+        close(transport);
+    }
+
+    @Override
+    public void destroy() {
+        PooledTransport pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            close(pooled.transport());
+        }
+    }
+
+    private Transport connect() throws MessagingException {
+        Transport transport = mailSender.getSession().getTransport(mailSender.getProtocol());
+        transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+        opened.increment();
+        return transport;
+    }
+
+    private static void close(Transport transport) {
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            log.debug("Failed to close SMTP transport: {}", e.getMessage());
+        }
+    }
+
+    private record PooledTransport(Transport transport, long returnedAt) {
+    }
+}
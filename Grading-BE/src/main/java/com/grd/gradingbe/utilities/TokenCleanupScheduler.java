@@ -13,7 +13,7 @@ public class TokenCleanupScheduler {
     
     private final RefreshTokenService refreshTokenService;
     
-    @Scheduled(fixedRate = 3600000) // Run every hour (3600000 ms)
+    @Scheduled(fixedRateString = "${env.jwt.cleanup.interval-ms:3600000}", scheduler = "tokenCleanupTaskScheduler")
     public void cleanupExpiredTokens() {
         log.info("Starting cleanup of expired refresh tokens");
         refreshTokenService.cleanupExpiredTokens();
@@ -0,0 +1,41 @@
+-- Runs after Hibernate has created/updated the tables (spring.jpa.defer-datasource-initialization).
+-- Every statement must be idempotent: it executes on each startup.
+-- Requires the unaccent and pg_trgm extensions, created once by db/init/01-extensions.sql: creating
+-- extensions needs privileges the application role does not have.
+
+-- unaccent() is only STABLE (it resolves its dictionary through search_path), so index expressions
+-- need this IMMUTABLE wrapper with the dictionary pinned.
+CREATE OR REPLACE FUNCTION f_unaccent(text) RETURNS text
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT
+AS $$ SELECT public.unaccent('public.unaccent'::regdictionary, $1) $$;
+
+-- Catalog search: the expressions must stay identical to the ones in UniversityRepository/MajorRepository
+CREATE INDEX IF NOT EXISTS idx_universities_search_trgm ON universities
+    USING gin (f_unaccent(lower(coalesce(name, '') || ' ' || coalesce(code, '') || ' ' || coalesce(description, ''))) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_majors_search_trgm ON majors
+    USING gin (f_unaccent(lower(coalesce(name, '') || ' ' || coalesce(code, '') || ' ' || coalesce(description, ''))) gin_trgm_ops);
+
+-- Ids come from pooled sequences (allocation size 50, see University/Major). Rows inserted while the
+-- columns were IDENTITY are not covered by the sequences, so move each one past max(id); never backwards,
+-- since other nodes may hold unused blocks.
+SELECT setval('universities_seq', GREATEST((SELECT last_value FROM universities_seq), (SELECT coalesce(max(id), 0) FROM universities) + 50));
+SELECT setval('majors_seq', GREATEST((SELECT last_value FROM majors_seq), (SELECT coalesce(max(id), 0) FROM majors) + 50));
+
+-- mail_outbox.link is cleared once a mail is sent or has failed; ddl-auto never relaxes NOT NULL itself
+ALTER TABLE mail_outbox ALTER COLUMN link DROP NOT NULL;
+
+-- Keyset sort columns (see KeysetCursor) must be NOT NULL; ddl-auto only applies that to new tables.
+-- Rows written before name/code were validated get a placeholder that sorts and seeks like any value.
+UPDATE universities SET name = coalesce(code, 'University ' || id) WHERE name IS NULL;
+UPDATE universities SET code = 'UNI-' || id WHERE code IS NULL;
+UPDATE universities SET created_at = coalesce(updated_at, now()) WHERE created_at IS NULL;
+UPDATE majors SET name = coalesce(code, 'Major ' || id) WHERE name IS NULL;
+UPDATE majors SET code = 'MAJ-' || id WHERE code IS NULL;
+UPDATE majors SET created_at = coalesce(updated_at, now()) WHERE created_at IS NULL;
+ALTER TABLE universities ALTER COLUMN name SET NOT NULL, ALTER COLUMN code SET NOT NULL, ALTER COLUMN created_at SET NOT NULL;
+ALTER TABLE majors ALTER COLUMN name SET NOT NULL, ALTER COLUMN code SET NOT NULL, ALTER COLUMN created_at SET NOT NULL;
+
+-- @Version columns added to existing tables start out NULL; Hibernate needs a value to increment
+UPDATE universities SET version = 0 WHERE version IS NULL;
+UPDATE majors SET version = 0 WHERE version IS NULL;
@@ -0,0 +1,88 @@
+package com.grd.gradingbe.service;
+
+import com.grd.gradingbe.dto.enums.DataFormat;
+import com.grd.gradingbe.dto.enums.TypeUniversity;
+import com.grd.gradingbe.dto.response.ImportResponse;
+import com.grd.gradingbe.model.Major;
+import com.grd.gradingbe.model.University;
+import com.grd.gradingbe.repository.MajorRepository;
+import com.grd.gradingbe.repository.UniversityRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * An export must be importable as is; the majors export references universities by id, not code.
+ */
+@SpringBootTest
+class CatalogExportImportRoundTripTest {
+
+    private static final int MAJORS = 5;
+
+    @Autowired
+    private CatalogExportService catalogExportService;
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private UniversityRepository universityRepository;
+
+    @Autowired
+    private MajorRepository majorRepository;
+
+    private University university;
+    private final List<Long> majorIds = new ArrayList<>();
+
+    @BeforeEach
+    void createCatalog() {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        university = universityRepository.save(University.builder()
+                .name("Round trip " + run)
+                .code("RT-" + run)
+                .typeUniversity(TypeUniversity.PRIVATE)
+                .build());
+        for (int m = 0; m < MAJORS; m++) {
+            majorIds.add(majorRepository.save(Major.builder()
+                    .name("Major " + m)
+                    .code("RT-" + run + "-" + m)
+                    .durationYears(4)
+                    .university(university)
+                    .build()).getId());
+        }
+    }
+
+    @AfterEach
+    void deleteCatalog() {
+        // By id: the import bumped the versions of the entities saved above
+        majorRepository.deleteAllById(majorIds);
+        universityRepository.deleteById(university.getId());
+    }
+
+    @Test
+    void reimportsAMajorsExport() throws Exception {
+        for (DataFormat format : DataFormat.values()) {
+            ByteArrayOutputStream exported = new ByteArrayOutputStream();
+            long written = catalogExportService.exportMajors(exported, format);
+
+            ImportResponse imported = catalogImportService.importMajors(new ByteArrayInputStream(exported.toByteArray()), format);
+
+            assertThat(imported.errors()).isEmpty();
+            assertThat(imported.processed()).isEqualTo(written);
+            assertThat(imported.imported()).isEqualTo(written);
+            for (Long id : majorIds) {
+                assertThat(majorRepository.findById(id).orElseThrow().getUniversity().getId()).isEqualTo(university.getId());
+            }
+        }
+    }
+}
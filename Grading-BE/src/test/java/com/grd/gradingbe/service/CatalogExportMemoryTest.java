@@ -0,0 +1,216 @@
+package com.grd.gradingbe.service;
+
+import com.grd.gradingbe.dto.enums.DataFormat;
+import com.grd.gradingbe.dto.response.ImportResponse;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A scaled-down export: whatever the row count, the persistence context must stay (near) empty,
+ * output must reach the stream every flush-every rows rather than once at the end, and the driver
+ * must fetch the rows in chunks instead of reading the whole result into memory up front.
+ */
+@SpringBootTest(properties = "env.catalog.export.flush-every=" + CatalogExportMemoryTest.FLUSH_EVERY)
+class CatalogExportMemoryTest {
+
+    static final int FLUSH_EVERY = 500;
+    private static final int ROWS = 20_000;
+
+    @Autowired
+    private CatalogExportService catalogExportService;
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String codePrefix;
+
+    @BeforeEach
+    void importUniversities() {
+        DriverProbe.reset();
+        codePrefix = "HB-" + UUID.randomUUID().toString().substring(0, 6) + "-";
+        StringBuilder csv = new StringBuilder("name,code,typeUniversity,description\n");
+        for (int i = 0; i < ROWS; i++) {
+            csv.append("Heap bound ").append(i).append(',').append(codePrefix).append(i)
+                    .append(",Public,").append("x".repeat(200)).append('\n');
+        }
+
+        ImportResponse imported = catalogImportService.importUniversities(
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)), DataFormat.CSV);
+        assertThat(imported.imported()).isEqualTo((long) ROWS);
+    }
+
+    @AfterEach
+    void deleteUniversities() {
+        jdbcTemplate.update("DELETE FROM universities WHERE code LIKE ?", codePrefix + "%");
+    }
+
+    @Test
+    void keepsThePersistenceContextEmptyAndFlushesAsItGoes() throws Exception {
+        ProbeStream out = new ProbeStream();
+
+        long written = catalogExportService.exportUniversities(out, DataFormat.NDJSON);
+
+        assertThat(written).isGreaterThanOrEqualTo((long) ROWS);
+        assertThat(out.bytes).isGreaterThan((long) ROWS * 200);
+        // Every entity is detached once written, so at most the row in hand is managed
+        assertThat(out.maxManagedEntities).isLessThanOrEqualTo(1);
+        // Flushed while the cursor was open, not buffered until the end
+        assertThat(out.flushesInTransaction).isGreaterThanOrEqualTo(ROWS / FLUSH_EVERY);
+        // pgjdbc reads the whole result inside executeQuery unless the statement has a fetch size and
+        // autocommit is off; only then is the first flush (before the last row is fetched) proof of streaming
+        assertThat(DriverProbe.fetchSize).isGreaterThan(0);
+        assertThat(DriverProbe.autoCommit).isFalse();
+        assertThat(out.rowsFetchedAtFirstFlush).isBetween(1, ROWS - 1);
+        assertThat(DriverProbe.rowsFetched.get()).isGreaterThanOrEqualTo(ROWS);
+    }
+
+    /**
+     * Discards the output, counting it, and samples the export's persistence context on every flush.
+     */
+    private class ProbeStream extends OutputStream {
+        long bytes;
+        int maxManagedEntities;
+        int flushesInTransaction;
+        int rowsFetchedAtFirstFlush = -1;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+
+        @Override
+        public void flush() {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                if (flushesInTransaction++ == 0) {
+                    rowsFetchedAtFirstFlush = DriverProbe.rowsFetched.get();
+                }
+                int managed = entityManager.unwrap(Session.class).getStatistics().getEntityCount();
+                maxManagedEntities = Math.max(maxManagedEntities, managed);
+            }
+        }
+    }
+
+    @TestConfiguration
+    static class DriverProbeConfig {
+
+        @Bean
+        static BeanPostProcessor driverProbe() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? new DriverProbe(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    /**
+     * Sees every statement the application runs. For the one given a fetch size (the export stream),
+     * records that fetch size and the autocommit mode it ran under, and counts the rows read from
+     * its result set.
+     */
+    static class DriverProbe extends DelegatingDataSource {
+        static final AtomicInteger rowsFetched = new AtomicInteger();
+        static volatile int fetchSize;
+        static volatile Boolean autoCommit;
+
+        DriverProbe(DataSource target) {
+            super(target);
+        }
+
+        static void reset() {
+            rowsFetched.set(0);
+            fetchSize = 0;
+            autoCommit = null;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return probe(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return probe(super.getConnection(username, password));
+        }
+
+        private static Connection probe(Connection connection) {
+            return proxy(Connection.class, connection, (method, result) ->
+                    "prepareStatement".equals(method.getName()) ? probe((PreparedStatement) result, connection) : result);
+        }
+
+        private static PreparedStatement probe(PreparedStatement statement, Connection connection) {
+            return proxy(PreparedStatement.class, statement, (method, result) -> {
+                if ("executeQuery".equals(method.getName()) && statement.getFetchSize() > 0) {
+                    fetchSize = statement.getFetchSize();
+                    autoCommit = connection.getAutoCommit();
+                    return probe((ResultSet) result);
+                }
+                return result;
+            });
+        }
+
+        private static ResultSet probe(ResultSet resultSet) {
+            return proxy(ResultSet.class, resultSet, (method, result) -> {
+                if ("next".equals(method.getName()) && Boolean.TRUE.equals(result)) {
+                    rowsFetched.incrementAndGet();
+                }
+                return result;
+            });
+        }
+
+        private static <T> T proxy(Class<T> type, T target, AfterCall afterCall) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+                Object result;
+                try {
+                    result = method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+                return afterCall.apply(method, result);
+            }));
+        }
+
+        private interface AfterCall {
+            Object apply(Method method, Object result) throws SQLException;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.grd.gradingbe.service;
+
+import com.grd.gradingbe.dto.enums.MailOutboxStatus;
+import com.grd.gradingbe.dto.enums.MailType;
+import com.grd.gradingbe.model.MailOutbox;
+import com.grd.gradingbe.repository.MailOutboxRepository;
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Outbox claim, SMTP delivery and retry against GreenMail as the SMTP server.
+ * The scheduled dispatcher is slowed down so each test drives {@link MailService#deliverPending()} itself.
+ */
+@SpringBootTest(properties = {
+        "spring.mail.host=localhost",
+        "spring.mail.port=3025",
+        "spring.mail.username=outbox",
+        "spring.mail.password=outbox",
+        "spring.mail.properties.mail.smtp.starttls.enable=false",
+        "env.mail.outbox.poll-interval-ms=3600000",
+        "env.mail.outbox.base-backoff=1m",
+        "env.mail.outbox.max-attempts=3",
+        "env.mail.outbox.purge-interval-ms=3600000",
+        "env.mail.outbox.sent-retention=0s",
+        "env.mail.outbox.failed-retention=0s"
+})
+class MailOutboxIntegrationTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig().withUser("outbox", "outbox"))
+            .withPerMethodLifecycle(true);
+
+    @Autowired
+    private MailService mailService;
+
+    @Autowired
+    private MailOutboxRepository outboxRepository;
+
+    @Test
+    void claimsAndSendsQueuedMail() throws Exception {
+        String recipient = uniqueRecipient();
+        mailService.queueLinkEmail(MailType.REGISTRATION, recipient, "https://example.test/verify");
+
+        mailService.deliverPending();
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(Arrays.stream(received).filter(message -> hasRecipient(message, recipient))).hasSize(1);
+
+        MailOutbox mail = find(recipient);
+        assertThat(mail.getStatus()).isEqualTo(MailOutboxStatus.SENT);
+        assertThat(mail.getAttempts()).isEqualTo(1);
+        assertThat(mail.getSentAt()).isNotNull();
+        assertThat(mail.getLockedUntil()).isNull();
+        // The token in the link must not outlive the send
+        assertThat(mail.getLink()).isNull();
+    }
+
+    @Test
+    void reschedulesWithBackoffWhileTheServerIsDownAndSendsOnceItIsBack() throws Exception {
+        String recipient = uniqueRecipient();
+        mailService.queueLinkEmail(MailType.CHANGE_PASSWORD, recipient, "https://example.test/reset");
+
+        greenMail.stop();
+        LocalDateTime beforeAttempt = LocalDateTime.now();
+        mailService.deliverPending();
+
+        MailOutbox failed = find(recipient);
+        assertThat(failed.getStatus()).isEqualTo(MailOutboxStatus.PENDING);
+        assertThat(failed.getAttempts()).isEqualTo(1);
+        assertThat(failed.getLastError()).isNotNull();
+        // First retry waits base-backoff
+        assertThat(failed.getNextAttemptAt()).isGreaterThanOrEqualTo(beforeAttempt.plusSeconds(59));
+
+        greenMail.start();
+        // Not due yet: a poll before the backoff has passed must leave it alone
+        mailService.deliverPending();
+        assertThat(find(recipient).getStatus()).isEqualTo(MailOutboxStatus.PENDING);
+        assertThat(greenMail.getReceivedMessages()).isEmpty();
+
+        failed.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        outboxRepository.save(failed);
+        mailService.deliverPending();
+
+        MailOutbox sent = find(recipient);
+        assertThat(sent.getStatus()).isEqualTo(MailOutboxStatus.SENT);
+        assertThat(sent.getAttempts()).isEqualTo(2);
+        assertThat(Arrays.stream(greenMail.getReceivedMessages()).filter(message -> hasRecipient(message, recipient))).hasSize(1);
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        String recipient = uniqueRecipient();
+        mailService.queueLinkEmail(MailType.REGISTRATION, recipient, "https://example.test/verify");
+        greenMail.stop();
+
+        for (int attempt = 1; attempt <= 3; attempt++) {
+            MailOutbox mail = find(recipient);
+            mail.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+            outboxRepository.save(mail);
+            mailService.deliverPending();
+        }
+
+        MailOutbox dead = find(recipient);
+        assertThat(dead.getStatus()).isEqualTo(MailOutboxStatus.FAILED);
+        assertThat(dead.getAttempts()).isEqualTo(3);
+        assertThat(dead.getLink()).isNull();
+    }
+
+    @Test
+    void purgesFinishedMailButKeepsPendingMail() throws Exception {
+        String sentRecipient = uniqueRecipient();
+        mailService.queueLinkEmail(MailType.REGISTRATION, sentRecipient, "https://example.test/verify");
+        mailService.deliverPending();
+        assertThat(find(sentRecipient).getStatus()).isEqualTo(MailOutboxStatus.SENT);
+
+        String pendingRecipient = uniqueRecipient();
+        mailService.queueLinkEmail(MailType.REGISTRATION, pendingRecipient, "https://example.test/verify");
+        // Let sent_at fall behind the zero retention
+        Thread.sleep(10);
+
+        assertThat(mailService.purgeFinished()).isGreaterThanOrEqualTo(1L);
+
+        assertThat(findAny(sentRecipient)).isEmpty();
+        assertThat(findAny(pendingRecipient)).isNotEmpty();
+        // Would otherwise be delivered by the next test's poll
+        outboxRepository.delete(find(pendingRecipient));
+    }
+
+    private MailOutbox find(String recipient) {
+        return findAny(recipient).orElseThrow();
+    }
+
+    private Optional<MailOutbox> findAny(String recipient) {
+        return outboxRepository.findAll().stream()
+                .filter(mail -> mail.getRecipient().equals(recipient))
+                .findFirst();
+    }
+
+    private static String uniqueRecipient() {
+        return "outbox-" + UUID.randomUUID() + "@example.test";
+    }
+
+    private static boolean hasRecipient(MimeMessage message, String recipient) {
+        try {
+            return Arrays.stream(message.getAllRecipients()).anyMatch(address -> address.toString().equals(recipient));
+        } catch (jakarta.mail.MessagingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
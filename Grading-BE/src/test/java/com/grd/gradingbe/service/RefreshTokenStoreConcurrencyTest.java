@@ -0,0 +1,101 @@
+package com.grd.gradingbe.service;
+
+import com.grd.gradingbe.dto.enums.AuthenticationType;
+import com.grd.gradingbe.dto.enums.Role;
+import com.grd.gradingbe.model.User;
+import com.grd.gradingbe.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs against the configured store (jpa by default, redis with env.jwt.refresh-token-store=redis).
+ */
+@SpringBootTest
+class RefreshTokenStoreConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private RefreshTokenStore refreshTokenStore;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void createUser() {
+        String name = "rotate-" + UUID.randomUUID();
+        user = userRepository.save(User.builder()
+                .username(name)
+                .email(name + "@test.local")
+                .role(Role.USER)
+                .authType(AuthenticationType.LOCAL)
+                .is_active(true)
+                .verified(true)
+                .created_at(LocalDateTime.now())
+                .build());
+    }
+
+    @AfterEach
+    void deleteUser() {
+        refreshTokenStore.deleteAllForUser(user.getId());
+        userRepository.delete(user);
+    }
+
+    @Test
+    void parallelRotationsOfOneTokenIssueExactlyOneReplacement() throws Exception {
+        String token = UUID.randomUUID().toString();
+        LocalDateTime expiry = LocalDateTime.now().plusDays(1);
+        refreshTokenStore.save(token, user.getId(), expiry);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<String> newTokens = new ArrayList<>();
+        List<Future<Optional<Integer>>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                String newToken = UUID.randomUUID().toString();
+                newTokens.add(newToken);
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return refreshTokenStore.rotate(token, newToken, expiry);
+                }));
+            }
+            // Release every thread at once so the rotations really race
+            start.countDown();
+
+            int succeeded = 0;
+            for (Future<Optional<Integer>> result : results) {
+                Optional<Integer> owner = result.get(30, TimeUnit.SECONDS);
+                if (owner.isPresent()) {
+                    assertThat(owner).contains(user.getId());
+                    succeeded++;
+                }
+            }
+            assertThat(succeeded).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(refreshTokenStore.findActive(token)).isEmpty();
+        assertThat(newTokens.stream().filter(newToken -> refreshTokenStore.findActive(newToken).isPresent()))
+                .hasSize(1);
+    }
+}
@@ -0,0 +1,111 @@
+package com.grd.gradingbe.service;
+
+import com.grd.gradingbe.dto.enums.TypeUniversity;
+import com.grd.gradingbe.dto.response.MajorResponse;
+import com.grd.gradingbe.dto.response.PageResponse;
+import com.grd.gradingbe.dto.response.UniversityResponse;
+import com.grd.gradingbe.model.Major;
+import com.grd.gradingbe.model.University;
+import com.grd.gradingbe.repository.MajorRepository;
+import com.grd.gradingbe.repository.UniversityRepository;
+import com.grd.gradingbe.utilities.CatalogMapper;
+import com.grd.gradingbe.utilities.CatalogSnapshot;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * include=majors on a page the snapshot cannot serve must load the majors of the whole page in one
+ * statement, not one per university (or one per major's university).
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class UniversityMajorsQueryCountTest {
+
+    private static final int UNIVERSITIES = 5;
+    private static final int MAJORS_PER_UNIVERSITY = 3;
+
+    // An empty snapshot sends every lookup to the database
+    @MockBean
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private UniversityService universityService;
+
+    @Autowired
+    private UniversityRepository universityRepository;
+
+    @Autowired
+    private MajorRepository majorRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<University> universities = new ArrayList<>();
+    private final List<Major> majors = new ArrayList<>();
+
+    @BeforeEach
+    void createCatalog() {
+        when(catalogSnapshotService.current()).thenReturn(CatalogSnapshot.EMPTY);
+
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        for (int u = 0; u < UNIVERSITIES; u++) {
+            University university = universityRepository.save(University.builder()
+                    .name("Query count " + run + " " + u)
+                    .code("QC-" + run + "-" + u)
+                    .typeUniversity(TypeUniversity.PUBLIC)
+                    .build());
+            universities.add(university);
+            for (int m = 0; m < MAJORS_PER_UNIVERSITY; m++) {
+                majors.add(majorRepository.save(Major.builder()
+                        .name("Major " + m)
+                        .code("QC-" + run + "-" + u + "-" + m)
+                        .durationYears(4)
+                        .university(university)
+                        .build()));
+            }
+        }
+    }
+
+    @AfterEach
+    void deleteCatalog() {
+        majorRepository.deleteAll(majors);
+        universityRepository.deleteAll(universities);
+    }
+
+    @Test
+    void loadsTheMajorsOfAPageInOneStatement() {
+        PageResponse<UniversityResponse> page = PageResponse.<UniversityResponse>builder()
+                .content(universities.stream().map(CatalogMapper::toResponse).toList())
+                .page(0)
+                .size(UNIVERSITIES)
+                .first(true)
+                .last(true)
+                .build();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        PageResponse<UniversityResponse> withMajors = universityService.withMajors(page);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1L);
+        for (UniversityResponse university : withMajors.getContent()) {
+            assertThat(university.majors()).hasSize(MAJORS_PER_UNIVERSITY);
+            for (MajorResponse major : university.majors()) {
+                assertThat(major.universityId()).isEqualTo(university.id());
+            }
+        }
+    }
+}